@@ -3,32 +3,58 @@ package me.marvin.proxy;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.epoll.EpollDatagramChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import me.marvin.proxy.backend.Backend;
+import me.marvin.proxy.backend.BalancingStrategy;
+import me.marvin.proxy.backend.HealthChecker;
+import me.marvin.proxy.backend.StatusCache;
+import me.marvin.proxy.metrics.ListenerProfiler;
+import me.marvin.proxy.metrics.MetricsServer;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.networking.Keys;
 import me.marvin.proxy.networking.PacketListener;
+import me.marvin.proxy.networking.ProtocolDirection;
+import me.marvin.proxy.networking.ProtocolPhase;
 import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.LazyPacket;
 import me.marvin.proxy.networking.packet.PacketType;
 import me.marvin.proxy.networking.packet.PacketTypes;
+import me.marvin.proxy.networking.pipeline.proxy.BackendPool;
 import me.marvin.proxy.networking.pipeline.proxy.FrontendChannelInitializer;
 import me.marvin.proxy.utils.GameProfile;
 import me.marvin.proxy.utils.ServerAddress;
+import me.marvin.proxy.utils.ServerResolver;
 import me.marvin.proxy.utils.SessionService;
 import me.marvin.proxy.utils.Tristate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
+import java.util.zip.Deflater;
 
 /**
  * Represents the proxy itself.
@@ -44,13 +70,27 @@ public class Proxy {
      */
     public static final Class<? extends ServerChannel> CHANNEL_TYPE;
 
+    /**
+     * Netty channel type used for the backend connections.
+     */
+    public static final Class<? extends Channel> SOCKET_CHANNEL_TYPE;
+
+    /**
+     * Netty channel type used for the DNS queries.
+     */
+    public static final Class<? extends DatagramChannel> DATAGRAM_CHANNEL_TYPE;
+
     static {
         if (Epoll.isAvailable()) {
             GROUP_FACTORY = EpollEventLoopGroup::new;
             CHANNEL_TYPE = EpollServerSocketChannel.class;
+            SOCKET_CHANNEL_TYPE = EpollSocketChannel.class;
+            DATAGRAM_CHANNEL_TYPE = EpollDatagramChannel.class;
         } else {
             GROUP_FACTORY = NioEventLoopGroup::new;
             CHANNEL_TYPE = NioServerSocketChannel.class;
+            SOCKET_CHANNEL_TYPE = NioSocketChannel.class;
+            DATAGRAM_CHANNEL_TYPE = NioDatagramChannel.class;
         }
 
         PacketTypes.load();
@@ -77,17 +117,53 @@ public class Proxy {
      */
     private final Path parentFolder;
     /**
-     * The registered packet listeners.
+     * The pool of pre-established backend connections.
+     */
+    private final BackendPool backendPool;
+    /**
+     * The health checker of the backends.
      */
-    private final List<PacketListener> listeners;
+    private final HealthChecker healthChecker;
+    /**
+     * The cache of the status responses of the backends.
+     */
+    private final StatusCache statusCache;
+    /**
+     * The resolver of the target server's address.
+     */
+    private final ServerResolver resolver;
+    /**
+     * The server exposing the metrics of this proxy.
+     */
+    private final MetricsServer metricsServer;
+    /**
+     * The profiler of the packet listeners.
+     */
+    private final ListenerProfiler listenerProfiler;
+    /**
+     * The open client connections.
+     */
+    private final ChannelGroup frontends;
+    /**
+     * The registered packet listeners, replaced as a whole on every change.
+     */
+    private volatile Listeners listeners;
+    /**
+     * The lock guarding the modification of the registered packet listeners.
+     */
+    private final Object listenerLock = new Object();
     /**
      * The proxy channel.
      */
     private Channel channel;
     /**
-     * The target server's address.
+     * The target servers, replaced as a whole on every change.
      */
-    private ServerAddress address;
+    private volatile List<Backend> backends;
+    /**
+     * The strategy selecting the target server of the players.
+     */
+    private volatile BalancingStrategy balancingStrategy;
     /**
      * The session service used for authentication.
      */
@@ -104,6 +180,86 @@ public class Proxy {
      * The name used for authentication. If this is empty, then the proxy will forward the name sent by the client.
      */
     private String name;
+    /**
+     * Whether the relayed packets should be flushed once per read loop, instead of once per packet.
+     */
+    private boolean flushBatching;
+    /**
+     * The maximum amount of relayed packets pending before a flush is forced.
+     */
+    private int flushPacketLimit;
+    /**
+     * The maximum amount of relayed bytes pending before a flush is forced.
+     */
+    private int flushByteLimit;
+    /**
+     * Whether compressed packets should be relayed as-is, instead of being decompressed by the proxy.
+     */
+    private boolean compressionPassthrough;
+    /**
+     * The compression threshold used between the clients and the proxy, negative if disabled.
+     */
+    private int frontendCompressionThreshold;
+    /**
+     * The compression level used between the clients and the proxy.
+     */
+    private int frontendCompressionLevel;
+    /**
+     * The amount of idle backend connections kept per event loop.
+     */
+    private int backendPoolSize;
+    /**
+     * The time in milliseconds after which idle pooled backend connections are closed.
+     */
+    private long backendPoolIdleTimeout;
+    /**
+     * The time in milliseconds between the health checks of the backends, 0 if disabled.
+     */
+    private long healthCheckInterval;
+    /**
+     * The time in milliseconds after which a health check fails.
+     */
+    private long healthCheckTimeout;
+    /**
+     * The amount of consecutive failures after which a backend is down.
+     */
+    private int healthCheckFailures;
+    /**
+     * The time in milliseconds the status responses of the backends are cached for, 0 if disabled.
+     */
+    private long statusCacheTtl;
+    /**
+     * The write buffer water marks of the client connections.
+     */
+    private WriteBufferWaterMark frontendWriteBufferWaterMark;
+    /**
+     * The write buffer water marks of the backend connections.
+     */
+    private WriteBufferWaterMark backendWriteBufferWaterMark;
+    /**
+     * The maximum amount of bytes held back from a client until its backend connection is established.
+     */
+    private int pendingByteLimit;
+    /**
+     * The time in milliseconds in which the backend connection of a client has to be established.
+     */
+    private long pendingTimeout;
+    /**
+     * The port of the metrics endpoint, negative if disabled.
+     */
+    private int metricsPort;
+    /**
+     * Every how many invocations the time spent in the packet listeners is measured, 0 if disabled.
+     */
+    private volatile int listenerSampleRate;
+    /**
+     * The time in microseconds after which a packet listener is logged as slow, 0 if disabled.
+     */
+    private volatile long slowListenerThreshold;
+    /**
+     * Whether the round trip time of the clients should be measured from the relayed keep alives.
+     */
+    private boolean latencyTracking;
 
     public Proxy(@Range(from = 0, to = 65535) int port, @NotNull String targetAddress) {
         this(port, targetAddress, Path.of("").toAbsolutePath());
@@ -114,13 +270,40 @@ public class Proxy {
         this.bossGroup = GROUP_FACTORY.apply(1);
         this.workerGroup = GROUP_FACTORY.apply(0);
         this.port = port;
-        this.address = ServerAddress.parse(targetAddress);
         this.parentFolder = parentFolder;
-        this.listeners = new ArrayList<>();
+        this.backendPool = new BackendPool(this);
+        this.healthChecker = new HealthChecker(this);
+        this.statusCache = new StatusCache(this);
+        this.resolver = new ServerResolver(workerGroup.next(), DATAGRAM_CHANNEL_TYPE);
+        this.metricsServer = new MetricsServer(ProxyMetrics.REGISTRY);
+        this.listenerProfiler = new ListenerProfiler(this);
+        this.frontends = new DefaultChannelGroup("frontends", GlobalEventExecutor.INSTANCE);
+        this.balancingStrategy = BalancingStrategy.roundRobin();
+        backends(targetAddress);
+        this.listeners = Listeners.EMPTY;
         this.sessionService = SessionService.DEFAULT;
         this.accessToken = "";
         this.uuid = "";
         this.name = "";
+        this.flushBatching = true;
+        this.flushPacketLimit = 64;
+        this.flushByteLimit = 1 << 15;
+        this.frontendCompressionThreshold = -1;
+        this.frontendCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+        this.backendPoolSize = 0;
+        this.backendPoolIdleTimeout = 15000;
+        this.healthCheckInterval = 0;
+        this.healthCheckTimeout = 3000;
+        this.healthCheckFailures = 3;
+        this.statusCacheTtl = 0;
+        this.frontendWriteBufferWaterMark = WriteBufferWaterMark.DEFAULT;
+        this.backendWriteBufferWaterMark = WriteBufferWaterMark.DEFAULT;
+        this.pendingByteLimit = 1 << 16;
+        this.pendingTimeout = 10000;
+        this.metricsPort = -1;
+        this.listenerSampleRate = 0;
+        this.slowListenerThreshold = 0;
+        this.latencyTracking = false;
     }
 
     /**
@@ -136,10 +319,29 @@ public class Proxy {
             .childOption(ChannelOption.SO_REUSEADDR, true)
             .childOption(ChannelOption.TCP_NODELAY, true)
             .childOption(ChannelOption.IP_TOS, 0x18)
+            .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, frontendWriteBufferWaterMark)
             .localAddress(port);
         ChannelFuture future = bootstrap.bind()
             .addListener(listener);
 
+        if (backendPoolSize > 0) {
+            backendPool.start(workerGroup);
+        }
+
+        if (healthCheckInterval > 0) {
+            healthChecker.start(workerGroup);
+        }
+
+        if (metricsPort >= 0) {
+            metricsServer.start(bossGroup, workerGroup, metricsPort).addListener((ChannelFutureListener) f -> {
+                if (f.isSuccess()) {
+                    logger.info("Exposing metrics on {}", f.channel().localAddress());
+                } else {
+                    logger.error("Can't bind the metrics endpoint to port {}", metricsPort, f.cause());
+                }
+            });
+        }
+
         channel = future.channel();
         channel.closeFuture().sync();
     }
@@ -150,6 +352,11 @@ public class Proxy {
      * @throws InterruptedException if {@link Future#await()} throws an {@link InterruptedException}
      */
     public void shutdown() throws InterruptedException {
+        backendPool.close();
+        healthChecker.close();
+        metricsServer.close();
+        resolver.close();
+
         if (channel != null) {
             channel.close().await();
         }
@@ -161,8 +368,11 @@ public class Proxy {
      * @param packetListeners the listeners
      */
     public void registerListeners(PacketListener... packetListeners) {
-        listeners.addAll(Arrays.asList(packetListeners));
-        listeners.sort(null);
+        synchronized (listenerLock) {
+            List<PacketListener> updated = new ArrayList<>(Arrays.asList(listeners.all()));
+            updated.addAll(Arrays.asList(packetListeners));
+            publishListeners(updated);
+        }
     }
 
     /**
@@ -171,7 +381,12 @@ public class Proxy {
      * @param predicate the predicate
      */
     public void unregisterListeners(Predicate<PacketListener> predicate) {
-        listeners.removeIf(predicate);
+        synchronized (listenerLock) {
+            List<PacketListener> updated = new ArrayList<>(Arrays.asList(listeners.all()));
+            if (updated.removeIf(predicate)) {
+                publishListeners(updated);
+            }
+        }
     }
 
     /**
@@ -180,11 +395,83 @@ public class Proxy {
      * @param packetListener the listener
      */
     public void unregisterListener(PacketListener packetListener) {
-        listeners.remove(packetListener);
+        synchronized (listenerLock) {
+            List<PacketListener> updated = new ArrayList<>(Arrays.asList(listeners.all()));
+            if (updated.remove(packetListener)) {
+                publishListeners(updated);
+            }
+        }
+    }
+
+    /**
+     * Returns the registered listeners, sorted by their priority.
+     *
+     * @return an immutable snapshot of the registered listeners
+     */
+    @NotNull
+    public List<PacketListener> listeners() {
+        return List.of(listeners.all());
+    }
+
+    /**
+     * Sorts the given listeners, builds their dispatch table and publishes them as the new snapshot.
+     *
+     * @param updated the new listeners
+     */
+    private void publishListeners(List<PacketListener> updated) {
+        updated.sort(null);
+        Map<PacketType, PacketListener[]> dispatchTable = new IdentityHashMap<>();
+
+        for (PacketType type : PacketTypes.values()) {
+            PacketListener[] interested = updated.stream()
+                .filter(listener -> listener.interested(type))
+                .toArray(PacketListener[]::new);
+
+            if (interested.length != 0) {
+                dispatchTable.put(type, interested);
+            }
+        }
+
+        listeners = new Listeners(updated.toArray(PacketListener[]::new), dispatchTable, listeners.generation() + 1);
     }
 
     /**
-     * Calls all the packet listeners.
+     * Returns the generation of the registered packet listeners.
+     * The generation changes every time a listener gets registered or unregistered.
+     *
+     * @return the generation
+     */
+    public int listenerGeneration() {
+        return listeners.generation();
+    }
+
+    /**
+     * Collects the ids of the packets which at least one of the registered listeners is interested in.
+     *
+     * @param direction the direction
+     * @param phase     the phase
+     * @param version   the version
+     * @return the set of interesting packet ids
+     * @see PacketListener#interested(PacketType)
+     */
+    @NotNull
+    public BitSet listenerInterests(@NotNull ProtocolDirection direction, @NotNull ProtocolPhase phase, @NotNull Version version) {
+        PacketType[] types = PacketTypes.types(direction, phase, version);
+        Map<PacketType, PacketListener[]> dispatchTable = listeners.dispatchTable();
+        BitSet interests = new BitSet(types.length);
+
+        for (int id = 0; id < types.length; id++) {
+            PacketType type = types[id];
+            if (type != null && dispatchTable.containsKey(type)) {
+                interests.set(id);
+            }
+        }
+
+        return interests;
+    }
+
+    /**
+     * Calls all the packet listeners interested in the given packet type.
      *
      * @param type     the packet type
      * @param buf      the buffer
@@ -194,15 +481,47 @@ public class Proxy {
      * @return false if the server should consume the packet, otherwise true
      */
     public Tristate callListeners(PacketType type, ByteBuf buf, Channel sender, ChannelHandlerContext receiver, Version version) {
+        return callListeners(new LazyPacket(type, buf, version), sender, receiver);
+    }
+
+    /**
+     * Calls all the packet listeners interested in the type of the given packet.
+     * Every listener receives the buffer of the packet at the same reader index.
+     *
+     * @param packet   the packet
+     * @param receiver the receiver
+     * @param sender   the sender
+     * @return false if the server should consume the packet, otherwise true
+     */
+    public Tristate callListeners(LazyPacket packet, Channel sender, ChannelHandlerContext receiver) {
         Tristate cancelled = Tristate.NOT_SET;
+        PacketListener[] interested = listeners.dispatchTable().get(packet.type());
+
+        if (interested == null) {
+            return cancelled;
+        }
+
+        ByteBuf buf = packet.buf();
+        int readerIndex = buf.readerIndex();
+        long start = System.nanoTime();
+        boolean sampled = listenerProfiler.sample();
+
+        for (PacketListener listener : interested) {
+            // Read right before the listener, so the time spent in recording isn't charged to the next one
+            long listenerStart = sampled ? System.nanoTime() : 0;
+            Tristate newState = listener.handle(packet, sender, receiver, cancelled);
+
+            if (sampled) {
+                listenerProfiler.record(listener, packet.type(), System.nanoTime() - listenerStart);
+            }
+            buf.readerIndex(readerIndex);
 
-        for (PacketListener listener : listeners) {
-            Tristate newState = listener.handle(type, buf, sender, receiver, version, cancelled);
             if (newState != Tristate.NOT_SET) {
                 cancelled = newState;
             }
         }
 
+        ProxyMetrics.listeners(packet.type().direction()).observeSince(start);
         return cancelled;
     }
 
@@ -236,27 +555,163 @@ public class Proxy {
     }
 
     /**
-     * Returns the remote server's address.
+     * Returns the remote server's address, the address of the first backend.
+     * <br>
+     * The address is not resolved, use {@link #resolver()} to get the socket address to connect to.
      *
      * @return the address
      */
     @NotNull
     public ServerAddress address() {
-        return address;
+        return backends.get(0).address();
     }
 
     /**
-     * Sets the target server's address.
+     * Sets the target server's address, replacing every backend.
      *
      * @param targetAddress the target server's address
      * @return this proxy
      */
     @NotNull
     public Proxy address(@NotNull String targetAddress) {
-        this.address = ServerAddress.parse(targetAddress);
+        return backends(targetAddress);
+    }
+
+    /**
+     * Returns the backends the players are relayed to.
+     *
+     * @return an immutable list of the backends
+     */
+    @NotNull
+    public List<Backend> backends() {
+        return backends;
+    }
+
+    /**
+     * Sets the backends the players are relayed to.
+     * <br>
+     * Backends with an unchanged address are kept, so their connection counts are preserved.
+     *
+     * @param targetAddresses the addresses of the backends
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy backends(@NotNull String... targetAddresses) {
+        if (targetAddresses.length == 0) {
+            throw new IllegalArgumentException("At least one backend is required");
+        }
+
+        List<Backend> previous = backends != null ? backends : List.of();
+        List<Backend> backends = new ArrayList<>(targetAddresses.length);
+
+        for (String targetAddress : targetAddresses) {
+            ServerAddress address = ServerAddress.unresolved(targetAddress);
+            backends.add(previous.stream()
+                .filter(backend -> backend.address().equals(address))
+                .findFirst()
+                .orElseGet(() -> new Backend(address)));
+        }
+
+        this.backends = List.copyOf(backends);
+        this.resolver.targets(backends.stream().map(Backend::address).toList());
+        this.statusCache.clear();
+        return this;
+    }
+
+    /**
+     * Selects the backend for the given connection using the {@link #balancingStrategy() balancing strategy}.
+     *
+     * @param frontend the client connection
+     * @param username the name sent by the client, or null if it's not known
+     * @return the selected backend, or null if none of the backends can be used
+     */
+    @Nullable
+    public Backend selectBackend(@NotNull Channel frontend, @Nullable String username) {
+        return balancingStrategy.select(backends, frontend, username);
+    }
+
+    /**
+     * Returns the strategy selecting the backend of the players.
+     *
+     * @return the balancing strategy
+     */
+    @NotNull
+    public BalancingStrategy balancingStrategy() {
+        return balancingStrategy;
+    }
+
+    /**
+     * Sets the strategy selecting the backend of the players.
+     *
+     * @param balancingStrategy the balancing strategy
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy balancingStrategy(@NotNull BalancingStrategy balancingStrategy) {
+        this.balancingStrategy = balancingStrategy;
         return this;
     }
 
+    /**
+     * Returns the health checker of the backends.
+     *
+     * @return the health checker
+     */
+    @NotNull
+    public HealthChecker healthChecker() {
+        return healthChecker;
+    }
+
+    /**
+     * Returns the cache of the status responses of the backends.
+     *
+     * @return the status cache
+     */
+    @NotNull
+    public StatusCache statusCache() {
+        return statusCache;
+    }
+
+    /**
+     * Returns the profiler of the packet listeners.
+     *
+     * @return the listener profiler
+     */
+    @NotNull
+    public ListenerProfiler listenerProfiler() {
+        return listenerProfiler;
+    }
+
+    /**
+     * Returns the open client connections. Their traffic statistics are stored in {@link Keys#STATS_KEY}.
+     *
+     * @return the client connections
+     */
+    @NotNull
+    public ChannelGroup frontends() {
+        return frontends;
+    }
+
+    /**
+     * Returns the resolver of the target server's address.
+     *
+     * @return the resolver
+     */
+    @NotNull
+    public ServerResolver resolver() {
+        return resolver;
+    }
+
+    /**
+     * Returns the pool of pre-established backend connections.
+     *
+     * @return the backend pool
+     */
+    @NotNull
+    public BackendPool backendPool() {
+        return backendPool;
+    }
+
     /**
      * Returns the parent folder of the proxy.
      *
@@ -354,4 +809,477 @@ public class Proxy {
         this.name = name;
         return this;
     }
+
+    /**
+     * Returns if the relayed packets are flushed once per read loop.
+     *
+     * @return true if flush batching is enabled, false otherwise
+     */
+    public boolean flushBatching() {
+        return flushBatching;
+    }
+
+    /**
+     * Sets if the relayed packets should be flushed once per read loop.
+     *
+     * @param flushBatching the new state
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy flushBatching(boolean flushBatching) {
+        this.flushBatching = flushBatching;
+        return this;
+    }
+
+    /**
+     * Returns the maximum amount of relayed packets pending before a flush is forced.
+     *
+     * @return the packet limit
+     */
+    public int flushPacketLimit() {
+        return flushPacketLimit;
+    }
+
+    /**
+     * Sets the maximum amount of relayed packets pending before a flush is forced.
+     *
+     * @param flushPacketLimit the new packet limit
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy flushPacketLimit(@Range(from = 1, to = Integer.MAX_VALUE) int flushPacketLimit) {
+        this.flushPacketLimit = flushPacketLimit;
+        return this;
+    }
+
+    /**
+     * Returns the maximum amount of relayed bytes pending before a flush is forced.
+     *
+     * @return the byte limit
+     */
+    public int flushByteLimit() {
+        return flushByteLimit;
+    }
+
+    /**
+     * Sets the maximum amount of relayed bytes pending before a flush is forced.
+     *
+     * @param flushByteLimit the new byte limit
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy flushByteLimit(@Range(from = 1, to = Integer.MAX_VALUE) int flushByteLimit) {
+        this.flushByteLimit = flushByteLimit;
+        return this;
+    }
+
+    /**
+     * Returns if compressed packets are relayed as-is.
+     *
+     * @return true if compression passthrough is enabled, false otherwise
+     */
+    public boolean compressionPassthrough() {
+        return compressionPassthrough;
+    }
+
+    /**
+     * Sets if compressed packets should be relayed as-is, instead of being decompressed by the proxy.
+     * <br>
+     * If enabled, the compression negotiated by the server is forwarded to the client, and the packets
+     * are only decompressed if a listener is interested in them. In that case the listeners receive a
+     * decompressed copy of the packet, so <b>modifying the buffer doesn't affect the relayed packet</b>.
+     * <br>
+     * This only affects the connections which haven't enabled compression yet.
+     *
+     * @param compressionPassthrough the new state
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy compressionPassthrough(boolean compressionPassthrough) {
+        this.compressionPassthrough = compressionPassthrough;
+        return this;
+    }
+
+    /**
+     * Returns the compression threshold used between the clients and the proxy.
+     *
+     * @return the threshold, negative if frontend compression is disabled
+     */
+    public int frontendCompressionThreshold() {
+        return frontendCompressionThreshold;
+    }
+
+    /**
+     * Sets the compression threshold used between the clients and the proxy, independently of the
+     * compression negotiated with the server. Packets larger than the threshold are compressed.
+     * <br>
+     * <b>Note: this has no effect if {@link #compressionPassthrough() compression passthrough} is
+     * enabled and the server enables compression, or if the client is older than 1.8.</b>
+     *
+     * @param frontendCompressionThreshold the new threshold, negative to disable frontend compression
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy frontendCompressionThreshold(int frontendCompressionThreshold) {
+        this.frontendCompressionThreshold = frontendCompressionThreshold;
+        return this;
+    }
+
+    /**
+     * Returns the compression level used between the clients and the proxy.
+     *
+     * @return the compression level
+     */
+    public int frontendCompressionLevel() {
+        return frontendCompressionLevel;
+    }
+
+    /**
+     * Sets the compression level used between the clients and the proxy.
+     *
+     * @param frontendCompressionLevel the new compression level, between 0-9 or -1 for the default level
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy frontendCompressionLevel(@Range(from = -1, to = 9) int frontendCompressionLevel) {
+        this.frontendCompressionLevel = frontendCompressionLevel;
+        return this;
+    }
+
+    /**
+     * Returns the amount of idle backend connections kept per event loop.
+     *
+     * @return the pool size, 0 if pooling is disabled
+     */
+    public int backendPoolSize() {
+        return backendPoolSize;
+    }
+
+    /**
+     * Sets the amount of idle backend connections kept per event loop, so new clients don't have to
+     * wait for the backend connection to be established.
+     * <br>
+     * <b>Note: pooling only starts if this is set before {@link #start(ChannelFutureListener) starting} the proxy.</b>
+     *
+     * @param backendPoolSize the new pool size, 0 to disable pooling
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy backendPoolSize(@Range(from = 0, to = Integer.MAX_VALUE) int backendPoolSize) {
+        this.backendPoolSize = backendPoolSize;
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which idle pooled backend connections are closed.
+     *
+     * @return the idle timeout
+     */
+    public long backendPoolIdleTimeout() {
+        return backendPoolIdleTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds after which idle pooled backend connections are closed and replaced.
+     * This should be lower than the read timeout of the server.
+     *
+     * @param backendPoolIdleTimeout the new idle timeout
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy backendPoolIdleTimeout(@Range(from = 1, to = Long.MAX_VALUE) long backendPoolIdleTimeout) {
+        this.backendPoolIdleTimeout = backendPoolIdleTimeout;
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds between the health checks of the backends.
+     *
+     * @return the interval, 0 if health checks are disabled
+     */
+    public long healthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * Sets the time in milliseconds between the health checks of the backends.
+     * <br>
+     * <b>Note: health checks only start if this is set before {@link #start(ChannelFutureListener) starting} the proxy.</b>
+     *
+     * @param healthCheckInterval the new interval, 0 to disable health checks
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy healthCheckInterval(@Range(from = 0, to = Long.MAX_VALUE) long healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a health check fails.
+     *
+     * @return the timeout
+     */
+    public long healthCheckTimeout() {
+        return healthCheckTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds after which a health check fails, including connecting to the backend.
+     *
+     * @param healthCheckTimeout the new timeout
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy healthCheckTimeout(@Range(from = 1, to = Long.MAX_VALUE) long healthCheckTimeout) {
+        this.healthCheckTimeout = healthCheckTimeout;
+        return this;
+    }
+
+    /**
+     * Returns the amount of consecutive failed health checks or connections after which a backend is down.
+     *
+     * @return the amount of failures
+     */
+    public int healthCheckFailures() {
+        return healthCheckFailures;
+    }
+
+    /**
+     * Sets the amount of consecutive failed health checks or connections after which a backend is down.
+     *
+     * @param healthCheckFailures the new amount of failures
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy healthCheckFailures(@Range(from = 1, to = Integer.MAX_VALUE) int healthCheckFailures) {
+        this.healthCheckFailures = healthCheckFailures;
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds the status responses of the backends are cached for.
+     *
+     * @return the TTL, 0 if the proxy relays every status request
+     */
+    public long statusCacheTtl() {
+        return statusCacheTtl;
+    }
+
+    /**
+     * Sets the time in milliseconds the status responses of the backends are cached for.
+     * <br>
+     * If enabled, the proxy answers the server list pings from the cache, without connecting to the backends.
+     * The backend connection of logging in players is only established once the handshake is received.
+     *
+     * @param statusCacheTtl the new TTL, 0 to relay every status request
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy statusCacheTtl(@Range(from = 0, to = Long.MAX_VALUE) long statusCacheTtl) {
+        this.statusCacheTtl = statusCacheTtl;
+        return this;
+    }
+
+    /**
+     * Returns the write buffer water marks of the client connections.
+     *
+     * @return the water marks
+     */
+    @NotNull
+    public WriteBufferWaterMark frontendWriteBufferWaterMark() {
+        return frontendWriteBufferWaterMark;
+    }
+
+    /**
+     * Sets the write buffer water marks of the client connections.
+     * <br>
+     * If more bytes are pending towards a client than the high water mark, reading from its backend is paused
+     * until the pending bytes drop below the low water mark.
+     * <br>
+     * <b>Note: this only applies if it's set before {@link #start(ChannelFutureListener) starting} the proxy.</b>
+     *
+     * @param frontendWriteBufferWaterMark the new water marks
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy frontendWriteBufferWaterMark(@NotNull WriteBufferWaterMark frontendWriteBufferWaterMark) {
+        this.frontendWriteBufferWaterMark = frontendWriteBufferWaterMark;
+        return this;
+    }
+
+    /**
+     * Returns the write buffer water marks of the backend connections.
+     *
+     * @return the water marks
+     */
+    @NotNull
+    public WriteBufferWaterMark backendWriteBufferWaterMark() {
+        return backendWriteBufferWaterMark;
+    }
+
+    /**
+     * Sets the write buffer water marks of the backend connections.
+     * <br>
+     * If more bytes are pending towards a backend than the high water mark, reading from its client is paused
+     * until the pending bytes drop below the low water mark.
+     *
+     * @param backendWriteBufferWaterMark the new water marks
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy backendWriteBufferWaterMark(@NotNull WriteBufferWaterMark backendWriteBufferWaterMark) {
+        this.backendWriteBufferWaterMark = backendWriteBufferWaterMark;
+        return this;
+    }
+
+    /**
+     * Returns the maximum amount of bytes held back from a client until its backend connection is established.
+     *
+     * @return the byte limit
+     */
+    public int pendingByteLimit() {
+        return pendingByteLimit;
+    }
+
+    /**
+     * Sets the maximum amount of bytes held back from a client until its backend connection is established.
+     * Clients sending more are disconnected.
+     *
+     * @param pendingByteLimit the new byte limit
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy pendingByteLimit(@Range(from = 0, to = Integer.MAX_VALUE) int pendingByteLimit) {
+        this.pendingByteLimit = pendingByteLimit;
+        return this;
+    }
+
+    /**
+     * Returns the time in milliseconds in which the backend connection of a client has to be established.
+     *
+     * @return the timeout
+     */
+    public long pendingTimeout() {
+        return pendingTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds in which the backend connection of a client has to be established,
+     * including waiting for the handshake if it's needed. Clients are disconnected after the timeout.
+     *
+     * @param pendingTimeout the new timeout
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy pendingTimeout(@Range(from = 1, to = Long.MAX_VALUE) long pendingTimeout) {
+        this.pendingTimeout = pendingTimeout;
+        return this;
+    }
+
+    /**
+     * Returns the port of the metrics endpoint.
+     *
+     * @return the port, negative if the endpoint is disabled
+     */
+    public int metricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * Sets the port of the metrics endpoint, which exposes the metrics of the proxy at {@code /metrics}
+     * in the Prometheus text format.
+     * <br>
+     * <b>Note: this only applies if it's set before {@link #start(ChannelFutureListener) starting} the proxy.</b>
+     *
+     * @param metricsPort the new port, negative to disable the endpoint
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy metricsPort(@Range(from = -1, to = 65535) int metricsPort) {
+        this.metricsPort = metricsPort;
+        return this;
+    }
+
+    /**
+     * Returns every how many invocations the time spent in the packet listeners is measured.
+     *
+     * @return the sample rate, 0 if the listeners aren't measured
+     */
+    public int listenerSampleRate() {
+        return listenerSampleRate;
+    }
+
+    /**
+     * Sets every how many invocations the time spent in the packet listeners is measured, see {@link #listenerProfiler()}.
+     *
+     * @param listenerSampleRate the new sample rate, 1 to measure every invocation, 0 to disable the measurements
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy listenerSampleRate(@Range(from = 0, to = Integer.MAX_VALUE) int listenerSampleRate) {
+        this.listenerSampleRate = listenerSampleRate;
+        return this;
+    }
+
+    /**
+     * Returns the time in microseconds after which a packet listener is logged as slow.
+     *
+     * @return the threshold, 0 if slow listeners aren't logged
+     */
+    public long slowListenerThreshold() {
+        return slowListenerThreshold;
+    }
+
+    /**
+     * Sets the time in microseconds after which a packet listener is logged as slow.
+     * <br>
+     * <b>Note: only the {@link #listenerSampleRate() measured} invocations are checked.</b>
+     *
+     * @param slowListenerThreshold the new threshold, 0 to disable the logging
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy slowListenerThreshold(@Range(from = 0, to = Long.MAX_VALUE) long slowListenerThreshold) {
+        this.slowListenerThreshold = slowListenerThreshold;
+        return this;
+    }
+
+    /**
+     * Returns if the round trip time of the clients is measured from the relayed keep alives.
+     *
+     * @return true if the round trip time is measured, false otherwise
+     */
+    public boolean latencyTracking() {
+        return latencyTracking;
+    }
+
+    /**
+     * Sets if the round trip time of the clients should be measured from the relayed keep alives, see {@link Keys#STATS_KEY}.
+     * <br>
+     * If enabled, the keep alives are inspected even if no listener is interested in them, so the id of every
+     * relayed packet in the play phase has to be peeked. With {@link #compressionPassthrough() compression passthrough},
+     * this means partially inflating every compressed packet in both directions.
+     * <br>
+     * Disabled by default, so packets nobody is interested in are relayed without being inspected.
+     *
+     * @param latencyTracking true if the round trip time should be measured, false otherwise
+     * @return this proxy
+     */
+    @NotNull
+    public Proxy latencyTracking(boolean latencyTracking) {
+        this.latencyTracking = latencyTracking;
+        return this;
+    }
+
+    /**
+     * An immutable snapshot of the registered packet listeners.
+     *
+     * @param all           the listeners, sorted by their priority
+     * @param dispatchTable the listeners grouped by the packet types they are interested in
+     * @param generation    the generation of this snapshot
+     */
+    private record Listeners(PacketListener[] all, Map<PacketType, PacketListener[]> dispatchTable, int generation) {
+        private static final Listeners EMPTY = new Listeners(new PacketListener[0], Map.of(), 0);
+    }
 }
@@ -0,0 +1,110 @@
+package me.marvin.proxy.backend;
+
+import io.netty.channel.Channel;
+import me.marvin.proxy.utils.ServerAddress;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A backend server the players can be relayed to.
+ * <br>
+ * The backend is marked as unavailable by the {@link HealthChecker} after too many consecutive failures,
+ * new players are only relayed to available backends.
+ */
+public final class Backend {
+    private final ServerAddress address;
+    private final AtomicInteger connections;
+    private final AtomicInteger failures;
+    private volatile boolean available;
+
+    public Backend(@NotNull ServerAddress address) {
+        this.address = address;
+        this.connections = new AtomicInteger();
+        this.failures = new AtomicInteger();
+        this.available = true;
+    }
+
+    /**
+     * Returns the address of this backend.
+     *
+     * @return the address
+     */
+    @NotNull
+    public ServerAddress address() {
+        return address;
+    }
+
+    /**
+     * Returns the amount of players currently relayed to this backend.
+     *
+     * @return the amount of connections
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * Counts the given backend connection towards this backend, until it gets closed.
+     *
+     * @param channel the backend connection
+     */
+    public void track(@NotNull Channel channel) {
+        connections.incrementAndGet();
+        channel.closeFuture().addListener(f -> connections.decrementAndGet());
+    }
+
+    /**
+     * Returns if new players can be relayed to this backend.
+     *
+     * @return true if the backend is available, false if it's down
+     */
+    public boolean available() {
+        return available;
+    }
+
+    /**
+     * Returns the amount of consecutive failed connections and health checks.
+     *
+     * @return the amount of failures
+     */
+    public int failures() {
+        return failures.get();
+    }
+
+    /**
+     * Records a successful connection or health check, and marks this backend as available.
+     *
+     * @return true if the backend was down, false otherwise
+     */
+    synchronized boolean succeeded() {
+        failures.set(0);
+
+        if (available) {
+            return false;
+        }
+
+        available = true;
+        return true;
+    }
+
+    /**
+     * Records a failed connection or health check, and marks this backend as unavailable if the threshold is reached.
+     *
+     * @param threshold the amount of consecutive failures after which the backend is down
+     * @return true if the backend went down, false otherwise
+     */
+    synchronized boolean failed(int threshold) {
+        if (failures.incrementAndGet() < threshold || !available) {
+            return false;
+        }
+
+        available = false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return address.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package me.marvin.proxy.backend;
+
+import io.netty.channel.Channel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Selects the backend a player gets relayed to.
+ * <br>
+ * The strategies should only select {@link Backend#available() available} backends.
+ * <br>
+ * <b>Note: the strategies are called from every event loop concurrently.</b>
+ */
+public interface BalancingStrategy {
+    /**
+     * Selects the backend for the given connection.
+     *
+     * @param backends the backends including the unavailable ones, never empty
+     * @param frontend the client connection
+     * @param username the name sent by the client, or null if it's not known
+     * @return the selected backend, or null if none of the backends can be used
+     */
+    @Nullable
+    Backend select(@NotNull List<Backend> backends, @NotNull Channel frontend, @Nullable String username);
+
+    /**
+     * Returns if this strategy selects the backend based on the name of the player.
+     * <br>
+     * If it does, the connection towards the backend is only established once the client sent its name.
+     *
+     * @return true if the strategy needs the name of the player, false otherwise
+     */
+    default boolean needsUsername() {
+        return false;
+    }
+
+    /**
+     * Returns a strategy which cycles through the backends.
+     *
+     * @return the strategy
+     */
+    @NotNull
+    static BalancingStrategy roundRobin() {
+        return new RoundRobinStrategy();
+    }
+
+    /**
+     * Returns a strategy which selects the backend with the fewest connections.
+     *
+     * @return the strategy
+     */
+    @NotNull
+    static BalancingStrategy leastConnections() {
+        return new LeastConnectionsStrategy();
+    }
+
+    /**
+     * Returns a strategy which consistently relays the same client address to the same backend.
+     *
+     * @return the strategy
+     */
+    @NotNull
+    static BalancingStrategy ipHash() {
+        return new ConsistentHashStrategy(false);
+    }
+
+    /**
+     * Returns a strategy which consistently relays the same player to the same backend.
+     * <br>
+     * Status requests have no name, those are hashed by the client address instead.
+     *
+     * @return the strategy
+     */
+    @NotNull
+    static BalancingStrategy usernameHash() {
+        return new ConsistentHashStrategy(true);
+    }
+}
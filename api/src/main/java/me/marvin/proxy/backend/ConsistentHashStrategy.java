@@ -0,0 +1,137 @@
+package me.marvin.proxy.backend;
+
+import io.netty.channel.Channel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Selects the backends using a hash ring, so adding or removing a backend only moves
+ * the players of the affected backend.
+ * <br>
+ * Every backend is placed on the ring multiple times, so the players are spread evenly.
+ * The ring is rebuilt when the list of backends changes. Unavailable backends are skipped
+ * by moving along the ring, so only their players are moved to other backends.
+ */
+final class ConsistentHashStrategy implements BalancingStrategy {
+    private static final int VIRTUAL_NODES = 160;
+
+    private final boolean username;
+    private volatile Ring ring;
+
+    ConsistentHashStrategy(boolean username) {
+        this.username = username;
+    }
+
+    @Override
+    @Nullable
+    public Backend select(@NotNull List<Backend> backends, @NotNull Channel frontend, @Nullable String username) {
+        Ring ring = this.ring;
+
+        if (ring == null || ring.backends() != backends) {
+            this.ring = ring = Ring.of(backends);
+        }
+
+        String key = this.username && username != null ? username : host(frontend);
+        return ring.get(hash(key));
+    }
+
+    @Override
+    public boolean needsUsername() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username ? "username-hash" : "ip-hash";
+    }
+
+    private static String host(Channel frontend) {
+        if (frontend.remoteAddress() instanceof InetSocketAddress address && address.getAddress() != null) {
+            return address.getAddress().getHostAddress();
+        }
+
+        return String.valueOf(frontend.remoteAddress());
+    }
+
+    /**
+     * Hashes the given key with FNV-1a, followed by the finalizer of MurmurHash3 to spread the bits.
+     *
+     * @param key the key
+     * @return the hash
+     */
+    private static int hash(String key) {
+        int hash = 0x811C9DC5;
+
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ b) * 0x01000193;
+        }
+
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * The hash ring: the sorted hashes of the virtual nodes, and the backends owning them.
+     *
+     * @param backends the backends the ring was built from
+     * @param hashes   the sorted hashes
+     * @param nodes    the backends of the hashes
+     */
+    private record Ring(List<Backend> backends, int[] hashes, Backend[] nodes) {
+        static Ring of(List<Backend> backends) {
+            long[] entries = new long[backends.size() * VIRTUAL_NODES];
+
+            for (int i = 0; i < backends.size(); i++) {
+                for (int node = 0; node < VIRTUAL_NODES; node++) {
+                    int hash = hash(backends.get(i).address() + "#" + node);
+                    // Sorting by hash, keeping the index of the backend in the lower bits
+                    entries[i * VIRTUAL_NODES + node] = ((long) hash << 32) | i;
+                }
+            }
+
+            Arrays.sort(entries);
+            int[] hashes = new int[entries.length];
+            Backend[] nodes = new Backend[entries.length];
+
+            for (int i = 0; i < entries.length; i++) {
+                hashes[i] = (int) (entries[i] >> 32);
+                nodes[i] = backends.get((int) entries[i]);
+            }
+
+            return new Ring(backends, hashes, nodes);
+        }
+
+        /**
+         * Returns the available backend owning the first node at or after the given hash.
+         *
+         * @param hash the hash
+         * @return the backend, or null if every backend is unavailable
+         */
+        Backend get(int hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+
+            if (index < 0) {
+                index = -index - 1;
+            }
+
+            for (int i = 0; i < nodes.length; i++) {
+                Backend backend = nodes[(index + i) % nodes.length];
+
+                if (backend.available()) {
+                    return backend;
+                }
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package me.marvin.proxy.backend;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.ScheduledFuture;
+import me.marvin.proxy.Proxy;
+import me.marvin.proxy.networking.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the health of the {@link Proxy#backends() backends}.
+ * <br>
+ * Every {@link Proxy#healthCheckInterval()} milliseconds, a status request is sent to each backend. A backend goes
+ * down after {@link Proxy#healthCheckFailures()} consecutive failed health checks or connections, and comes back up
+ * once a health check or a connection succeeds again. A backend is skipped while its previous health check is
+ * still running, so slow checks don't overlap and count as multiple failures.
+ * <br>
+ * <b>Note: failed connections are only counted while the health checks are running, otherwise nothing would
+ * bring the backends back up.</b>
+ */
+public final class HealthChecker {
+    private final Proxy proxy;
+    private final Set<Backend> pending;
+    private EventLoop loop;
+    private volatile ScheduledFuture<?> task;
+
+    public HealthChecker(@NotNull Proxy proxy) {
+        this.proxy = proxy;
+        this.pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Starts checking the backends periodically.
+     *
+     * @param group the event loops
+     */
+    public synchronized void start(@NotNull EventLoopGroup group) {
+        if (task != null) {
+            return;
+        }
+
+        loop = group.next();
+        task = loop.scheduleWithFixedDelay(this::checkAll, 0, proxy.healthCheckInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops checking the backends.
+     */
+    public synchronized void close() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    /**
+     * Records a successful connection towards the given backend.
+     *
+     * @param backend the backend
+     */
+    public void succeeded(@NotNull Backend backend) {
+        if (backend.succeeded()) {
+            proxy.logger().info("Backend {} is up", backend.address());
+        }
+    }
+
+    /**
+     * Records a failed connection towards the given backend.
+     *
+     * @param backend the backend
+     */
+    public void failed(@NotNull Backend backend) {
+        if (task != null && backend.failed(proxy.healthCheckFailures())) {
+            proxy.logger().warn("Backend {} is down ({} consecutive failures)", backend.address(), backend.failures());
+        }
+    }
+
+    private void checkAll() {
+        for (Backend backend : proxy.backends()) {
+            check(backend);
+        }
+    }
+
+    /**
+     * Sends a status request to the given backend, the check succeeds if the backend answers in time.
+     *
+     * @param backend the backend
+     */
+    private void check(Backend backend) {
+        // Only accessed by the loop of the checks, the listener runs there too
+        if (!pending.add(backend)) {
+            return;
+        }
+
+        StatusRequest.send(proxy, loop, backend, Version.V1_8).addListener(f -> {
+            pending.remove(backend);
+
+            if (f.isSuccess()) {
+                succeeded(backend);
+            } else {
+                proxy.logger().debug("Health check of {} failed", backend.address(), f.cause());
+                failed(backend);
+            }
+        });
+    }
+}
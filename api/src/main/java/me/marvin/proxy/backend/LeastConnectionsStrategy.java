@@ -0,0 +1,35 @@
+package me.marvin.proxy.backend;
+
+import io.netty.channel.Channel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Selects the available backend with the fewest connections, the first one wins ties.
+ */
+final class LeastConnectionsStrategy implements BalancingStrategy {
+    @Override
+    @Nullable
+    public Backend select(@NotNull List<Backend> backends, @NotNull Channel frontend, @Nullable String username) {
+        Backend selected = null;
+        int fewest = Integer.MAX_VALUE;
+
+        for (Backend backend : backends) {
+            int connections = backend.connections();
+
+            if (backend.available() && connections < fewest) {
+                selected = backend;
+                fewest = connections;
+            }
+        }
+
+        return selected;
+    }
+
+    @Override
+    public String toString() {
+        return "least-connections";
+    }
+}
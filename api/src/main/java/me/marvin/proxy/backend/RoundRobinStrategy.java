@@ -0,0 +1,36 @@
+package me.marvin.proxy.backend;
+
+import io.netty.channel.Channel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cycles through the backends, skipping the unavailable ones.
+ */
+final class RoundRobinStrategy implements BalancingStrategy {
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    @Nullable
+    public Backend select(@NotNull List<Backend> backends, @NotNull Channel frontend, @Nullable String username) {
+        int start = next.getAndIncrement();
+
+        for (int i = 0; i < backends.size(); i++) {
+            Backend backend = backends.get(Math.floorMod(start + i, backends.size()));
+
+            if (backend.available()) {
+                return backend;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "round-robin";
+    }
+}
@@ -0,0 +1,97 @@
+package me.marvin.proxy.backend;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.Future;
+import me.marvin.proxy.Proxy;
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.impl.status.server.ServerInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the status responses of the backends, so the proxy can answer the server list pings itself.
+ * <br>
+ * The responses are cached per backend and protocol version, for {@link Proxy#statusCacheTtl()} milliseconds.
+ * Expired responses are refreshed in the background, meanwhile the expired response is still served for another
+ * TTL. If a refresh fails, the response is dropped, so pings are relayed to the backend again.
+ */
+public final class StatusCache {
+    private final Proxy proxy;
+    private final Map<Key, Entry> entries;
+    private final Set<Key> refreshing;
+
+    public StatusCache(@NotNull Proxy proxy) {
+        this.proxy = proxy;
+        this.entries = new ConcurrentHashMap<>();
+        this.refreshing = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Returns the cached status response of the given backend, refreshing it if needed.
+     *
+     * @param backend the backend
+     * @param version the version of the client
+     * @param loop    the event loop used for the refresh
+     * @return the status response encoded as JSON, or null if there's no usable response
+     */
+    @Nullable
+    public String get(@NotNull Backend backend, @NotNull Version version, @NotNull EventLoop loop) {
+        Key key = new Key(backend, version.version());
+        Entry entry = entries.get(key);
+        long ttl = TimeUnit.MILLISECONDS.toNanos(proxy.statusCacheTtl());
+        long age = entry == null ? Long.MAX_VALUE : System.nanoTime() - entry.fetchedAt();
+
+        if (age > ttl) {
+            refresh(key, version, loop);
+        }
+
+        return age <= 2 * ttl ? entry.response() : null;
+    }
+
+    /**
+     * Drops every cached response.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private void refresh(Key key, Version version, EventLoop loop) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+
+        StatusRequest.send(proxy, loop, key.backend(), version).addListener((Future<ServerInfo> f) -> {
+            refreshing.remove(key);
+
+            if (f.isSuccess()) {
+                entries.put(key, new Entry(f.getNow().response(), System.nanoTime()));
+            } else {
+                proxy.logger().debug("Can't refresh the status of {}", key.backend().address(), f.cause());
+                entries.remove(key);
+            }
+        });
+    }
+
+    /**
+     * The key of a cached response.
+     *
+     * @param backend  the backend
+     * @param protocol the protocol version of the client
+     */
+    private record Key(Backend backend, int protocol) {
+    }
+
+    /**
+     * A cached response.
+     *
+     * @param response  the response encoded as JSON
+     * @param fetchedAt the {@link System#nanoTime()} at which the response was received
+     */
+    private record Entry(String response, long fetchedAt) {
+    }
+}
@@ -0,0 +1,142 @@
+package me.marvin.proxy.backend;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import me.marvin.proxy.Proxy;
+import me.marvin.proxy.networking.Keys;
+import me.marvin.proxy.networking.ProtocolDirection;
+import me.marvin.proxy.networking.ProtocolPhase;
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import me.marvin.proxy.networking.packet.impl.handshake.client.SetProtocol;
+import me.marvin.proxy.networking.packet.impl.status.client.StatusStart;
+import me.marvin.proxy.networking.packet.impl.status.server.ServerInfo;
+import me.marvin.proxy.networking.pipeline.Pipeline;
+import me.marvin.proxy.networking.pipeline.proxy.DefaultChannelInitializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
+
+/**
+ * Requests the status of a backend on a new connection, like the server list of the client does.
+ */
+final class StatusRequest extends ChannelInboundHandlerAdapter {
+    private final Backend backend;
+    private final Promise<ServerInfo> promise;
+
+    private StatusRequest(Backend backend, Promise<ServerInfo> promise) {
+        this.backend = backend;
+        this.promise = promise;
+    }
+
+    /**
+     * Requests the status of the given backend.
+     * <br>
+     * The request fails if the backend doesn't answer within {@link Proxy#healthCheckTimeout()} milliseconds,
+     * including resolving the address and establishing the connection.
+     *
+     * @param proxy   the proxy
+     * @param loop    the event loop of the connection
+     * @param backend the backend
+     * @param version the version of the request
+     * @return the future of the status
+     */
+    @NotNull
+    static Future<ServerInfo> send(@NotNull Proxy proxy, @NotNull EventLoop loop, @NotNull Backend backend, @NotNull Version version) {
+        int timeout = (int) Math.min(Integer.MAX_VALUE, proxy.healthCheckTimeout());
+        Promise<ServerInfo> promise = loop.newPromise();
+
+        ScheduledFuture<?> deadline = loop.schedule(() -> {
+            promise.tryFailure(new TimeoutException("Status request timed out after " + timeout + "ms"));
+        }, timeout, TimeUnit.MILLISECONDS);
+        promise.addListener(f -> deadline.cancel(false));
+
+        proxy.resolver().remoteAddress(backend.address(), loop).addListener((Future<InetSocketAddress> resolved) -> {
+            if (!resolved.isSuccess()) {
+                promise.tryFailure(resolved.cause());
+                return;
+            }
+
+            // Timed out while resolving
+            if (promise.isDone()) {
+                return;
+            }
+
+            ChannelFuture connect = new Bootstrap()
+                .group(loop)
+                .channel(Proxy.SOCKET_CHANNEL_TYPE)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeout)
+                .handler(new DefaultChannelInitializer() {
+                    @Override
+                    protected void initChannel(@NotNull Channel ch) {
+                        super.initChannel(ch);
+                        ch.attr(Keys.VERSION_KEY).set(version);
+                        ch.pipeline()
+                            .addLast(Pipeline.STATUS_REQUEST, new StatusRequest(backend, promise));
+                    }
+                })
+                .remoteAddress(resolved.getNow())
+                .connect()
+                .addListener((ChannelFutureListener) f -> {
+                    if (!f.isSuccess()) {
+                        promise.tryFailure(f.cause());
+                    }
+                });
+
+            promise.addListener(f -> connect.channel().close());
+        });
+        return promise;
+    }
+
+    @Override
+    public void channelActive(@NotNull ChannelHandlerContext ctx) {
+        Channel channel = ctx.channel();
+        Version version = channel.attr(Keys.VERSION_KEY).get();
+
+        ctx.write(new SetProtocol(version, backend.address().host(), backend.address().port(), ProtocolPhase.STATUS));
+        channel.attr(Keys.PHASE_KEY).set(ProtocolPhase.STATUS);
+        ctx.writeAndFlush(new StatusStart());
+        ctx.fireChannelActive();
+    }
+
+    @Override
+    public void channelRead(@NotNull ChannelHandlerContext ctx, @NotNull Object msg) {
+        ByteBuf buf = (ByteBuf) msg;
+
+        try {
+            Version version = ctx.channel().attr(Keys.VERSION_KEY).get();
+            int id = readVarInt(buf);
+
+            if (PacketTypes.findThrowing(ProtocolDirection.SERVER, ProtocolPhase.STATUS, id, version) != PacketTypes.Status.Server.SERVER_INFO) {
+                throw new IllegalStateException("Unexpected status packet " + id);
+            }
+
+            ServerInfo info = new ServerInfo();
+            info.decode(buf, version);
+            promise.trySuccess(info);
+        } catch (Exception ex) {
+            promise.tryFailure(ex);
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Override
+    public void channelInactive(@NotNull ChannelHandlerContext ctx) {
+        promise.tryFailure(new IllegalStateException("Connection closed before the status was received"));
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void exceptionCaught(@NotNull ChannelHandlerContext ctx, @NotNull Throwable cause) {
+        promise.tryFailure(cause);
+    }
+}
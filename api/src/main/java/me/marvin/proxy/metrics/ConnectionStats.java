@@ -0,0 +1,228 @@
+package me.marvin.proxy.metrics;
+
+import io.netty.channel.Channel;
+import me.marvin.proxy.networking.Keys;
+import me.marvin.proxy.networking.ProtocolPhase;
+import me.marvin.proxy.networking.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.SocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The traffic statistics of a client connection, see {@link Keys#STATS_KEY}.
+ * <br>
+ * The bytes are counted on the wire, the packets and their uncompressed size are counted by the proxy.
+ * The round trip time is measured between relaying a keep alive to the client and relaying its response,
+ * if {@link me.marvin.proxy.Proxy#latencyTracking() latency tracking} is enabled.
+ * <br>
+ * <b>Note: the statistics are only updated by the event loop of the connection, other threads may
+ * observe slightly outdated values.</b>
+ */
+public final class ConnectionStats {
+    private final Channel channel;
+    private final long connectedAt;
+    private String name;
+    private long bytesIn;
+    private long bytesOut;
+    private long packetsIn;
+    private long packetsOut;
+    private long packetBytesIn;
+    private long packetBytesOut;
+    private long keepAliveId;
+    private long keepAliveSentAt;
+    private long rtt;
+
+    public ConnectionStats(@NotNull Channel channel) {
+        this.channel = channel;
+        this.connectedAt = System.nanoTime();
+        this.rtt = -1;
+    }
+
+    /**
+     * Records bytes received from the client.
+     *
+     * @param bytes the amount of bytes
+     */
+    public void bytesIn(long bytes) {
+        bytesIn += bytes;
+    }
+
+    /**
+     * Records bytes sent to the client.
+     *
+     * @param bytes the amount of bytes
+     */
+    public void bytesOut(long bytes) {
+        bytesOut += bytes;
+    }
+
+    /**
+     * Records a packet received from the client.
+     *
+     * @param size the uncompressed size of the packet
+     */
+    public void packetIn(int size) {
+        packetsIn++;
+        packetBytesIn += size;
+    }
+
+    /**
+     * Records a packet sent to the client.
+     *
+     * @param size the uncompressed size of the packet
+     */
+    public void packetOut(int size) {
+        packetsOut++;
+        packetBytesOut += size;
+    }
+
+    /**
+     * Records a keep alive relayed to the client.
+     *
+     * @param id the id of the keep alive
+     */
+    public void keepAliveSent(long id) {
+        keepAliveId = id;
+        keepAliveSentAt = System.nanoTime();
+    }
+
+    /**
+     * Records a keep alive response relayed from the client, and updates the round trip time if it answers
+     * the last keep alive.
+     *
+     * @param id the id of the keep alive
+     */
+    public void keepAliveReceived(long id) {
+        if (keepAliveSentAt != 0 && keepAliveId == id) {
+            rtt = System.nanoTime() - keepAliveSentAt;
+            keepAliveSentAt = 0;
+        }
+    }
+
+    /**
+     * Sets the name the client logged in with.
+     *
+     * @param name the name
+     */
+    public void name(@NotNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name the client logged in with.
+     *
+     * @return the name, or null if the client didn't log in yet
+     */
+    @Nullable
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the address of the client.
+     *
+     * @return the address
+     */
+    @Nullable
+    public SocketAddress address() {
+        return channel.remoteAddress();
+    }
+
+    /**
+     * Returns the current phase of the connection.
+     *
+     * @return the phase
+     */
+    @NotNull
+    public ProtocolPhase phase() {
+        return channel.attr(Keys.PHASE_KEY).get();
+    }
+
+    /**
+     * Returns the version of the client.
+     *
+     * @return the version
+     */
+    @NotNull
+    public Version version() {
+        return channel.attr(Keys.VERSION_KEY).get();
+    }
+
+    /**
+     * Returns the time since the client connected.
+     *
+     * @param unit the unit of the result
+     * @return the time
+     */
+    public long uptime(@NotNull TimeUnit unit) {
+        return unit.convert(System.nanoTime() - connectedAt, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the amount of bytes received from the client.
+     *
+     * @return the amount of bytes
+     */
+    public long bytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * Returns the amount of bytes sent to the client.
+     *
+     * @return the amount of bytes
+     */
+    public long bytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * Returns the amount of packets received from the client.
+     *
+     * @return the amount of packets
+     */
+    public long packetsIn() {
+        return packetsIn;
+    }
+
+    /**
+     * Returns the amount of packets sent to the client.
+     *
+     * @return the amount of packets
+     */
+    public long packetsOut() {
+        return packetsOut;
+    }
+
+    /**
+     * Returns the average amount of bytes transferred per second in both directions since the client connected.
+     *
+     * @return the bandwidth in bytes per second
+     */
+    public double bandwidth() {
+        long nanos = System.nanoTime() - connectedAt;
+        return nanos <= 0 ? 0 : (bytesIn + bytesOut) * 1e9 / nanos;
+    }
+
+    /**
+     * Returns the amount of bytes sent on the wire per uncompressed packet byte sent to the client,
+     * including the framing.
+     *
+     * @return the ratio, below 1 if compression pays off, or {@link Double#NaN} if nothing was sent yet
+     */
+    public double compressionRatio() {
+        return packetBytesOut == 0 ? Double.NaN : (double) bytesOut / packetBytesOut;
+    }
+
+    /**
+     * Returns the last measured round trip time.
+     *
+     * @param unit the unit of the result
+     * @return the round trip time, or -1 if it wasn't measured yet, see {@link me.marvin.proxy.Proxy#latencyTracking()}
+     */
+    public long rtt(@NotNull TimeUnit unit) {
+        return rtt < 0 ? -1 : unit.convert(rtt, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,66 @@
+package me.marvin.proxy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing counter.
+ */
+public final class Counter extends Metric<Counter.Child> {
+    public Counter(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    @NotNull
+    protected Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    @NotNull
+    protected String type() {
+        return "counter";
+    }
+
+    @Override
+    protected void writeChild(@NotNull StringBuilder out, @NotNull String labels, @NotNull Child child) {
+        sample(out, name(), labels, Long.toString(child.sum()));
+    }
+
+    /**
+     * A counter with fixed label values. Recording is striped, so it doesn't contend between the event loops.
+     */
+    public static final class Child {
+        private final LongAdder value = new LongAdder();
+
+        private Child() {
+        }
+
+        /**
+         * Increments this counter by one.
+         */
+        public void inc() {
+            value.increment();
+        }
+
+        /**
+         * Increments this counter by the given amount.
+         *
+         * @param amount the amount
+         */
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        /**
+         * Returns the value of this counter.
+         *
+         * @return the value
+         */
+        public long sum() {
+            return value.sum();
+        }
+    }
+}
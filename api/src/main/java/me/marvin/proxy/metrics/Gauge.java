@@ -0,0 +1,64 @@
+package me.marvin.proxy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A value which can go up and down.
+ */
+public final class Gauge extends Metric<Gauge.Child> {
+    public Gauge(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+        super(name, help, labelNames);
+    }
+
+    @Override
+    @NotNull
+    protected Child newChild() {
+        return new Child();
+    }
+
+    @Override
+    @NotNull
+    protected String type() {
+        return "gauge";
+    }
+
+    @Override
+    protected void writeChild(@NotNull StringBuilder out, @NotNull String labels, @NotNull Child child) {
+        sample(out, name(), labels, Long.toString(child.sum()));
+    }
+
+    /**
+     * A gauge with fixed label values. Recording is striped, so it doesn't contend between the event loops.
+     */
+    public static final class Child {
+        private final LongAdder value = new LongAdder();
+
+        private Child() {
+        }
+
+        /**
+         * Increments this gauge by one.
+         */
+        public void inc() {
+            value.increment();
+        }
+
+        /**
+         * Decrements this gauge by one.
+         */
+        public void dec() {
+            value.decrement();
+        }
+
+        /**
+         * Returns the value of this gauge.
+         *
+         * @return the value
+         */
+        public long sum() {
+            return value.sum();
+        }
+    }
+}
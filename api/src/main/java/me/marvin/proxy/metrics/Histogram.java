@@ -0,0 +1,119 @@
+package me.marvin.proxy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, exposed in seconds.
+ */
+public final class Histogram extends Metric<Histogram.Child> {
+    /**
+     * Bucket bounds from a microsecond to 10 seconds, suitable for both per packet and network latencies.
+     */
+    public static final long[] DEFAULT_BOUNDS = {
+        TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MICROSECONDS.toNanos(5), TimeUnit.MICROSECONDS.toNanos(10),
+        TimeUnit.MICROSECONDS.toNanos(50), TimeUnit.MICROSECONDS.toNanos(100), TimeUnit.MICROSECONDS.toNanos(500),
+        TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(10),
+        TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(500),
+        TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(5), TimeUnit.SECONDS.toNanos(10)
+    };
+
+    private final long[] bounds;
+
+    public Histogram(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+        this(name, help, DEFAULT_BOUNDS, labelNames);
+    }
+
+    public Histogram(@NotNull String name, @NotNull String help, long @NotNull [] bounds, @NotNull String... labelNames) {
+        super(name, help, labelNames);
+        this.bounds = bounds.clone();
+        Arrays.sort(this.bounds);
+    }
+
+    @Override
+    @NotNull
+    protected Child newChild() {
+        return new Child(bounds);
+    }
+
+    @Override
+    @NotNull
+    protected String type() {
+        return "histogram";
+    }
+
+    @Override
+    protected void writeChild(@NotNull StringBuilder out, @NotNull String labels, @NotNull Child child) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += child.buckets[i].sum();
+            sample(out, name() + "_bucket", prefix + "le=\"" + seconds(bounds[i]) + "\"", Long.toString(cumulative));
+        }
+
+        cumulative += child.buckets[bounds.length].sum();
+        sample(out, name() + "_bucket", prefix + "le=\"+Inf\"", Long.toString(cumulative));
+        sample(out, name() + "_sum", labels, seconds(child.sum.sum()));
+        sample(out, name() + "_count", labels, Long.toString(cumulative));
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    /**
+     * A histogram with fixed label values. Recording is striped, so it doesn't contend between the event loops.
+     */
+    public static final class Child {
+        private final long[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder sum;
+
+        private Child(long[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length + 1];
+            this.sum = new LongAdder();
+
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records the given duration.
+         *
+         * @param nanos the duration in nanoseconds
+         */
+        public void observe(long nanos) {
+            int index = Arrays.binarySearch(bounds, nanos);
+            buckets[index < 0 ? -index - 1 : index].increment();
+            sum.add(nanos);
+        }
+
+        /**
+         * Records the time elapsed since the given {@link System#nanoTime()}.
+         *
+         * @param start the start time
+         */
+        public void observeSince(long start) {
+            observe(System.nanoTime() - start);
+        }
+
+        /**
+         * Returns the amount of recorded durations.
+         *
+         * @return the count
+         */
+        public long count() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+    }
+}
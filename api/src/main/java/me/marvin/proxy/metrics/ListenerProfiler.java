@@ -0,0 +1,127 @@
+package me.marvin.proxy.metrics;
+
+import me.marvin.proxy.Proxy;
+import me.marvin.proxy.networking.PacketListener;
+import me.marvin.proxy.networking.packet.PacketType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the time spent in the packet listeners, aggregated by their {@link PacketListener#owner() owners}.
+ * <br>
+ * Only every {@link Proxy#listenerSampleRate() n-th} invocation is measured, and the listeners exceeding
+ * the {@link Proxy#slowListenerThreshold() threshold} in a measured invocation are logged, at most once
+ * per {@link #WARN_INTERVAL} for each owner.
+ */
+public final class ListenerProfiler {
+    private static final long WARN_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final Proxy proxy;
+    private final Map<Object, Stats> stats;
+
+    public ListenerProfiler(@NotNull Proxy proxy) {
+        this.proxy = proxy;
+        this.stats = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Decides if the current invocation of the listeners should be measured.
+     *
+     * @return true if the invocation should be measured, false otherwise
+     */
+    public boolean sample() {
+        int rate = proxy.listenerSampleRate();
+        return rate == 1 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) == 0);
+    }
+
+    /**
+     * Records the time the given listener took to handle a packet of the given type.
+     *
+     * @param listener the listener
+     * @param type     the packet type
+     * @param nanos    the time in nanoseconds
+     */
+    public void record(@NotNull PacketListener listener, @NotNull PacketType type, long nanos) {
+        Object owner = listener.owner();
+        Stats stats = this.stats.computeIfAbsent(owner, __ -> new Stats());
+        stats.record(nanos);
+
+        long threshold = proxy.slowListenerThreshold();
+        if (threshold > 0 && nanos > TimeUnit.MICROSECONDS.toNanos(threshold) && stats.shouldWarn()) {
+            proxy.logger().warn("Packet listener of {} took {} us to handle {} (threshold: {} us)", owner, TimeUnit.NANOSECONDS.toMicros(nanos), type, threshold);
+        }
+    }
+
+    /**
+     * Returns the owners which spent the most time in their listeners.
+     *
+     * @param limit the maximum amount of owners
+     * @return the owners, sorted by the total measured time
+     */
+    @NotNull
+    public List<Entry> top(int limit) {
+        return stats.entrySet().stream()
+            .map(e -> e.getValue().snapshot(e.getKey()))
+            .sorted(Comparator.comparingLong(Entry::nanos).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * Forgets every measurement.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    /**
+     * The measurements of an owner.
+     *
+     * @param owner    the owner
+     * @param calls    the amount of measured invocations
+     * @param nanos    the total measured time in nanoseconds
+     * @param maxNanos the longest measured invocation in nanoseconds
+     */
+    public record Entry(Object owner, long calls, long nanos, long maxNanos) {
+        /**
+         * Returns the average time of an invocation.
+         *
+         * @return the average time in nanoseconds
+         */
+        public long averageNanos() {
+            return calls == 0 ? 0 : nanos / calls;
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLong lastWarned = new AtomicLong(System.nanoTime() - WARN_INTERVAL);
+
+        private void record(long nanos) {
+            this.calls.increment();
+            this.nanos.add(nanos);
+            this.maxNanos.accumulate(nanos);
+        }
+
+        private boolean shouldWarn() {
+            long now = System.nanoTime();
+            long last = lastWarned.get();
+            return now - last >= WARN_INTERVAL && lastWarned.compareAndSet(last, now);
+        }
+
+        private Entry snapshot(Object owner) {
+            return new Entry(owner, calls.sum(), nanos.sum(), maxNanos.get());
+        }
+    }
+}
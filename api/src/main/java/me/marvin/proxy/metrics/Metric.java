@@ -0,0 +1,125 @@
+package me.marvin.proxy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A metric family: a named metric, and its children per label values.
+ * <br>
+ * The children are created on first use and never removed. Hot paths should keep a reference to the child
+ * instead of looking it up with {@link #labels(String...)} every time.
+ *
+ * @param <C> the type of the children
+ */
+public abstract class Metric<C> {
+    private final String name;
+    private final String help;
+    private final String[] labelNames;
+    private final Map<List<String>, C> children;
+
+    protected Metric(@NotNull String name, @NotNull String help, @NotNull String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.labelNames = labelNames;
+        this.children = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the child with the given label values, creating it if needed.
+     *
+     * @param labelValues the label values, in the order of the label names
+     * @return the child
+     */
+    @NotNull
+    public C labels(@NotNull String... labelValues) {
+        if (labelValues.length != labelNames.length) {
+            throw new IllegalArgumentException("Expected " + labelNames.length + " label values, got " + labelValues.length);
+        }
+
+        return children.computeIfAbsent(List.of(labelValues), __ -> newChild());
+    }
+
+    /**
+     * Returns the name of this metric.
+     *
+     * @return the name
+     */
+    @NotNull
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Writes this metric in the Prometheus text format.
+     *
+     * @param out the target
+     */
+    void write(@NotNull StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type()).append('\n');
+
+        children.forEach((labelValues, child) -> {
+            StringBuilder labels = new StringBuilder();
+
+            for (int i = 0; i < labelNames.length; i++) {
+                labels.append(i == 0 ? "" : ",").append(labelNames[i]).append("=\"").append(escape(labelValues.get(i))).append('"');
+            }
+
+            writeChild(out, labels.toString(), child);
+        });
+    }
+
+    /**
+     * Creates a new child.
+     *
+     * @return the child
+     */
+    @NotNull
+    protected abstract C newChild();
+
+    /**
+     * Returns the Prometheus type of this metric.
+     *
+     * @return the type
+     */
+    @NotNull
+    protected abstract String type();
+
+    /**
+     * Writes the samples of the given child.
+     *
+     * @param out    the target
+     * @param labels the formatted labels of the child, without braces
+     * @param child  the child
+     */
+    protected abstract void writeChild(@NotNull StringBuilder out, @NotNull String labels, @NotNull C child);
+
+    /**
+     * Writes a single sample.
+     *
+     * @param out    the target
+     * @param name   the name of the sample
+     * @param labels the formatted labels, without braces
+     * @param value  the value
+     */
+    protected static void sample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    @Override
+    public String toString() {
+        return name + Arrays.toString(labelNames);
+    }
+}
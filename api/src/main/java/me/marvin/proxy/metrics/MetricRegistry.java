@@ -0,0 +1,48 @@
+package me.marvin.proxy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A collection of metrics, exposed together.
+ */
+public final class MetricRegistry {
+    private final List<Metric<?>> metrics = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers the given metric.
+     *
+     * @param metric the metric
+     * @param <M>    the type of the metric
+     * @return the metric
+     */
+    @NotNull
+    public <M extends Metric<?>> M register(@NotNull M metric) {
+        for (Metric<?> registered : metrics) {
+            if (registered.name().equals(metric.name())) {
+                throw new IllegalArgumentException("Metric " + metric.name() + " is already registered");
+            }
+        }
+
+        metrics.add(metric);
+        return metric;
+    }
+
+    /**
+     * Writes every registered metric in the Prometheus text format.
+     *
+     * @return the metrics
+     */
+    @NotNull
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+
+        for (Metric<?> metric : metrics) {
+            metric.write(out);
+        }
+
+        return out.toString();
+    }
+}
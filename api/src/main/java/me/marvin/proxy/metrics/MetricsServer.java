@@ -0,0 +1,99 @@
+package me.marvin.proxy.metrics;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.*;
+import io.netty.handler.codec.http.*;
+import me.marvin.proxy.Proxy;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A minimal HTTP server exposing a {@link MetricRegistry} at {@code /metrics} in the Prometheus text format.
+ */
+public final class MetricsServer {
+    private static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricRegistry registry;
+    private Channel channel;
+
+    public MetricsServer(@NotNull MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Binds this server to the given port.
+     *
+     * @param bossGroup   the group accepting the connections
+     * @param workerGroup the group handling the connections
+     * @param port        the port
+     * @return the future of the bind
+     */
+    @NotNull
+    public ChannelFuture start(@NotNull EventLoopGroup bossGroup, @NotNull EventLoopGroup workerGroup, int port) {
+        ChannelFuture future = new ServerBootstrap()
+            .channel(Proxy.CHANNEL_TYPE)
+            .group(bossGroup, workerGroup)
+            .childHandler(new ChannelInitializer<>() {
+                @Override
+                protected void initChannel(@NotNull Channel ch) {
+                    ch.pipeline()
+                        .addLast(new HttpServerCodec())
+                        .addLast(new HttpObjectAggregator(1 << 16))
+                        .addLast(new Handler());
+                }
+            })
+            .localAddress(port)
+            .bind();
+
+        channel = future.channel();
+        return future;
+    }
+
+    /**
+     * Closes this server.
+     */
+    public void close() {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private final class Handler extends SimpleChannelInboundHandler<FullHttpRequest> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+            FullHttpResponse response;
+            String path = new QueryStringDecoder(request.uri()).path();
+
+            if (!PATH.equals(path)) {
+                response = new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.NOT_FOUND);
+            } else if (request.method() != HttpMethod.GET && request.method() != HttpMethod.HEAD) {
+                response = new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.METHOD_NOT_ALLOWED);
+                response.headers().set(HttpHeaderNames.ALLOW, "GET, HEAD");
+            } else {
+                ByteBuf content = ByteBufUtil.writeUtf8(ctx.alloc(), registry.scrape());
+                response = new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.OK, content);
+                response.headers().set(HttpHeaderNames.CONTENT_TYPE, CONTENT_TYPE);
+            }
+
+            HttpUtil.setContentLength(response, response.content().readableBytes());
+            if (request.method() == HttpMethod.HEAD) {
+                response.content().clear();
+            }
+
+            boolean keepAlive = HttpUtil.isKeepAlive(request);
+            HttpUtil.setKeepAlive(response, keepAlive);
+
+            ChannelFuture future = ctx.writeAndFlush(response);
+            if (!keepAlive) {
+                future.addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            ctx.close();
+        }
+    }
+}
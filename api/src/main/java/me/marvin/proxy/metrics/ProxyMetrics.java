@@ -0,0 +1,143 @@
+package me.marvin.proxy.metrics;
+
+import me.marvin.proxy.networking.ProtocolDirection;
+import me.marvin.proxy.networking.packet.PacketType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The metrics of the proxy.
+ * <br>
+ * Durations are measured with {@link System#nanoTime()} and exposed in seconds.
+ */
+public enum ProxyMetrics {;
+    /**
+     * The registry containing every metric of the proxy.
+     */
+    public static final MetricRegistry REGISTRY = new MetricRegistry();
+
+    /**
+     * The open connections, by side (frontend, backend).
+     */
+    public static final Gauge CHANNELS = REGISTRY.register(new Gauge(
+        "proxy_channels_active", "Open connections.", "side"
+    ));
+
+    /**
+     * The transferred bytes, by side (frontend, backend) and direction (in, out).
+     */
+    public static final Counter BYTES = REGISTRY.register(new Counter(
+        "proxy_bytes_total", "Bytes transferred on the wire.", "side", "direction"
+    ));
+
+    /**
+     * The relayed packets, by direction, phase and type. Packets relayed without being inspected have the type passthrough.
+     */
+    public static final Counter PACKETS = REGISTRY.register(new Counter(
+        "proxy_packets_total", "Relayed packets.", "direction", "phase", "type"
+    ));
+
+    /**
+     * The time spent compressing and decompressing packets, by operation (deflate, inflate).
+     */
+    public static final Histogram COMPRESSION = REGISTRY.register(new Histogram(
+        "proxy_compression_seconds", "Time spent compressing and decompressing packets.", "operation"
+    ));
+
+    /**
+     * The time spent encrypting and decrypting, by operation (encrypt, decrypt).
+     */
+    public static final Histogram ENCRYPTION = REGISTRY.register(new Histogram(
+        "proxy_encryption_seconds", "Time spent encrypting and decrypting.", "operation"
+    ));
+
+    /**
+     * The time spent calling the packet listeners, by direction.
+     */
+    public static final Histogram LISTENERS = REGISTRY.register(new Histogram(
+        "proxy_listener_seconds", "Time spent calling the packet listeners.", "direction"
+    ));
+
+    /**
+     * The latency of joining the server through the session service, by result (success, failure).
+     */
+    public static final Histogram SESSION_JOIN = REGISTRY.register(new Histogram(
+        "proxy_session_join_seconds", "Latency of the session server join requests.", "result"
+    ));
+
+    /**
+     * The time from accepting a client until its login finished.
+     */
+    public static final Histogram LOGIN = REGISTRY.register(new Histogram(
+        "proxy_login_seconds", "Time from accepting a client until its login finished."
+    ));
+
+    public static final Gauge.Child FRONTEND_CHANNELS = CHANNELS.labels("frontend");
+    public static final Gauge.Child BACKEND_CHANNELS = CHANNELS.labels("backend");
+    public static final Histogram.Child DEFLATE = COMPRESSION.labels("deflate");
+    public static final Histogram.Child INFLATE = COMPRESSION.labels("inflate");
+    public static final Histogram.Child ENCRYPT = ENCRYPTION.labels("encrypt");
+    public static final Histogram.Child DECRYPT = ENCRYPTION.labels("decrypt");
+    public static final Histogram.Child LOGIN_TIME = LOGIN.labels();
+
+    private static final Map<PacketType, Counter.Child> PACKETS_BY_TYPE = new ConcurrentHashMap<>();
+    private static final Counter.Child[] PASSTHROUGH_PACKETS = new Counter.Child[ProtocolDirection.values().length];
+    private static final Histogram.Child[] LISTENERS_BY_DIRECTION = new Histogram.Child[ProtocolDirection.values().length];
+
+    static {
+        for (ProtocolDirection direction : ProtocolDirection.values()) {
+            PASSTHROUGH_PACKETS[direction.ordinal()] = PACKETS.labels(label(direction), "play", "passthrough");
+            LISTENERS_BY_DIRECTION[direction.ordinal()] = LISTENERS.labels(label(direction));
+        }
+    }
+
+    /**
+     * Returns the packet counter of the given type.
+     *
+     * @param type the packet type
+     * @return the counter
+     */
+    @NotNull
+    public static Counter.Child packets(@NotNull PacketType type) {
+        Counter.Child counter = PACKETS_BY_TYPE.get(type);
+
+        if (counter == null) {
+            counter = PACKETS_BY_TYPE.computeIfAbsent(type, __ -> PACKETS.labels(
+                label(type.direction()),
+                type.phase().name().toLowerCase(Locale.ROOT),
+                type.toString().toLowerCase(Locale.ROOT)
+            ));
+        }
+
+        return counter;
+    }
+
+    /**
+     * Returns the counter of the packets relayed without being inspected in the given direction.
+     *
+     * @param direction the direction
+     * @return the counter
+     */
+    @NotNull
+    public static Counter.Child passthroughPackets(@NotNull ProtocolDirection direction) {
+        return PASSTHROUGH_PACKETS[direction.ordinal()];
+    }
+
+    /**
+     * Returns the listener latency histogram of the given direction.
+     *
+     * @param direction the direction
+     * @return the histogram
+     */
+    @NotNull
+    public static Histogram.Child listeners(@NotNull ProtocolDirection direction) {
+        return LISTENERS_BY_DIRECTION[direction.ordinal()];
+    }
+
+    private static String label(ProtocolDirection direction) {
+        return direction == ProtocolDirection.CLIENT ? "serverbound" : "clientbound";
+    }
+}
@@ -0,0 +1,74 @@
+package me.marvin.proxy.natives;
+
+import io.netty.buffer.ByteBuf;
+import me.marvin.proxy.utils.MinecraftEncryption;
+import org.jetbrains.annotations.NotNull;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+
+/**
+ * The JCE based cipher implementation running on the hardware accelerated AES intrinsics of the JVM.
+ * <br>
+ * Heap buffers are processed through their backing array. Direct buffers are processed in chunks through
+ * a reused array, instead of the temporary arrays allocated by {@link Cipher#update(java.nio.ByteBuffer, java.nio.ByteBuffer)}
+ * on every call.
+ */
+final class IntrinsicCipher implements MinecraftCipher {
+    static final Factory FACTORY = new Factory() {
+        @Override
+        @NotNull
+        public String name() {
+            return "JDK (AES intrinsics)";
+        }
+
+        @Override
+        @NotNull
+        public MinecraftCipher forEncryption(@NotNull SecretKey key) {
+            return new IntrinsicCipher(MinecraftEncryption.createEncryptionCipher(Cipher.ENCRYPT_MODE, key));
+        }
+
+        @Override
+        @NotNull
+        public MinecraftCipher forDecryption(@NotNull SecretKey key) {
+            return new IntrinsicCipher(MinecraftEncryption.createEncryptionCipher(Cipher.DECRYPT_MODE, key));
+        }
+    };
+
+    private static final int CHUNK = 8192;
+
+    private final Cipher cipher;
+    private byte[] scratch;
+
+    private IntrinsicCipher(Cipher cipher) {
+        this.cipher = cipher;
+    }
+
+    @Override
+    public void process(@NotNull ByteBuf buf) throws GeneralSecurityException {
+        int index = buf.readerIndex();
+        int len = buf.readableBytes();
+
+        if (buf.hasArray()) {
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset() + index;
+            cipher.update(array, offset, len, array, offset);
+            return;
+        }
+
+        if (scratch == null) {
+            scratch = new byte[CHUNK];
+        }
+
+        while (len > 0) {
+            int chunk = Math.min(len, CHUNK);
+            buf.getBytes(index, scratch, 0, chunk);
+            cipher.update(scratch, 0, chunk, scratch, 0);
+            buf.setBytes(index, scratch, 0, chunk);
+
+            index += chunk;
+            len -= chunk;
+        }
+    }
+}
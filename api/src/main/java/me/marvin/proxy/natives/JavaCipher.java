@@ -0,0 +1,45 @@
+package me.marvin.proxy.natives;
+
+import io.netty.buffer.ByteBuf;
+import me.marvin.proxy.utils.MinecraftEncryption;
+import org.jetbrains.annotations.NotNull;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+
+/**
+ * The JCE based cipher implementation.
+ */
+final class JavaCipher implements MinecraftCipher {
+    static final Factory FACTORY = new Factory() {
+        @Override
+        @NotNull
+        public String name() {
+            return "Java";
+        }
+
+        @Override
+        @NotNull
+        public MinecraftCipher forEncryption(@NotNull SecretKey key) {
+            return new JavaCipher(MinecraftEncryption.createEncryptionCipher(Cipher.ENCRYPT_MODE, key));
+        }
+
+        @Override
+        @NotNull
+        public MinecraftCipher forDecryption(@NotNull SecretKey key) {
+            return new JavaCipher(MinecraftEncryption.createEncryptionCipher(Cipher.DECRYPT_MODE, key));
+        }
+    };
+
+    private final Cipher cipher;
+
+    private JavaCipher(Cipher cipher) {
+        this.cipher = cipher;
+    }
+
+    @Override
+    public void process(@NotNull ByteBuf buf) throws GeneralSecurityException {
+        MinecraftEncryption.cipherInPlace(cipher, buf);
+    }
+}
@@ -0,0 +1,144 @@
+package me.marvin.proxy.natives;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The {@code java.util.zip} based compressor implementation.
+ */
+final class JavaCompressor implements MinecraftCompressor {
+    static final Factory FACTORY = new Factory() {
+        @Override
+        @NotNull
+        public String name() {
+            return "Java";
+        }
+
+        @Override
+        @NotNull
+        public MinecraftCompressor create(int level) {
+            return new JavaCompressor(level);
+        }
+    };
+
+    private static final int DEFLATE_CHUNK = 8192;
+
+    private final Deflater deflater;
+    private final Inflater inflater;
+
+    private JavaCompressor(int level) {
+        this.deflater = new Deflater(level);
+        this.inflater = new Inflater();
+    }
+
+    @Override
+    public void deflate(@NotNull ByteBuf source, @NotNull ByteBuf destination) {
+        checkDestination(destination);
+        ByteBuf input = nioCompatible(source);
+
+        try {
+            deflater.setInput(input.nioBuffer());
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                // Only growing once the buffer is full, the callers usually allocate enough for the whole output
+                if (!destination.isWritable()) {
+                    destination.ensureWritable(DEFLATE_CHUNK);
+                }
+
+                ByteBuffer output = destination.nioBuffer(destination.writerIndex(), destination.writableBytes());
+                destination.writerIndex(destination.writerIndex() + deflater.deflate(output));
+            }
+
+            source.skipBytes(source.readableBytes());
+        } finally {
+            deflater.reset();
+            input.release();
+        }
+    }
+
+    @Override
+    public void inflate(@NotNull ByteBuf source, @NotNull ByteBuf destination, int uncompressedSize) throws DataFormatException {
+        checkDestination(destination);
+        destination.ensureWritable(uncompressedSize);
+        ByteBuf input = nioCompatible(source);
+
+        try {
+            inflater.setInput(input.nioBuffer());
+
+            ByteBuffer output = destination.nioBuffer(destination.writerIndex(), uncompressedSize);
+            while (!inflater.finished() && output.hasRemaining()) {
+                if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+
+            int inflatedSize = output.position();
+            if (inflatedSize != uncompressedSize || !inflater.finished()) {
+                throw new DataFormatException("Badly compressed packet - actual size doesn't match the declared size of " + uncompressedSize);
+            }
+
+            destination.writerIndex(destination.writerIndex() + inflatedSize);
+            source.skipBytes(source.readableBytes());
+        } finally {
+            inflater.reset();
+            input.release();
+        }
+    }
+
+    @Override
+    public void inflatePrefix(@NotNull ByteBuf source, @NotNull ByteBuf destination, int uncompressedSize, int length) throws DataFormatException {
+        checkDestination(destination);
+        int prefixSize = Math.min(length, uncompressedSize);
+        destination.ensureWritable(prefixSize);
+        ByteBuf input = nioCompatible(source);
+
+        try {
+            // zlib stops as soon as the output is full, so only the beginning of the data is inflated
+            inflater.setInput(input.nioBuffer());
+
+            ByteBuffer output = destination.nioBuffer(destination.writerIndex(), prefixSize);
+            while (!inflater.finished() && output.hasRemaining()) {
+                if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+
+            destination.writerIndex(destination.writerIndex() + output.position());
+        } finally {
+            inflater.reset();
+            input.release();
+        }
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+        inflater.end();
+    }
+
+    /**
+     * Returns the given buffer (retained) if its readable bytes can be exposed as a single {@link ByteBuffer},
+     * otherwise copies them into a new pooled direct buffer.
+     */
+    private static ByteBuf nioCompatible(ByteBuf buf) {
+        if (buf.nioBufferCount() == 1) {
+            return buf.retain();
+        }
+
+        ByteBuf copy = buf.alloc().directBuffer(buf.readableBytes());
+        copy.writeBytes(buf, buf.readerIndex(), buf.readableBytes());
+        return copy;
+    }
+
+    private static void checkDestination(ByteBuf buf) {
+        if (buf.nioBufferCount() != 1) {
+            throw new IllegalArgumentException("destination must be backed by a single ByteBuffer");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package me.marvin.proxy.natives;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Provides the {@link IntrinsicCipher}, if the JVM compiles AES into hardware instructions ({@code -XX:+UseAES}).
+ * <br>
+ * The compression is left to the fallback, as {@code java.util.zip} already calls into the native zlib.
+ */
+public final class JdkNativeProvider implements NativeProvider {
+    @Override
+    @NotNull
+    public String name() {
+        return "JDK";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        try {
+            HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return bean != null && Boolean.parseBoolean(bean.getVMOption("UseAES").getValue());
+        } catch (IllegalArgumentException | LinkageError ex) {
+            // Not a HotSpot JVM, or the platform has no AES instructions
+            return false;
+        }
+    }
+
+    @Override
+    @Nullable
+    public MinecraftCipher.Factory cipher() {
+        return IntrinsicCipher.FACTORY;
+    }
+}
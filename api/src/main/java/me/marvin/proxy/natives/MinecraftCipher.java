@@ -0,0 +1,58 @@
+package me.marvin.proxy.natives;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+
+/**
+ * Represents the AES/CFB8 stream cipher used for packet encryption / decryption.
+ */
+public interface MinecraftCipher extends AutoCloseable {
+    /**
+     * Encrypts / decrypts the readable bytes of the given buffer in place.
+     *
+     * @param buf the buffer
+     * @throws GeneralSecurityException if the cipher fails
+     */
+    void process(@NotNull ByteBuf buf) throws GeneralSecurityException;
+
+    /**
+     * Releases the resources held by this cipher.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Creates {@link MinecraftCipher ciphers}.
+     */
+    interface Factory {
+        /**
+         * Returns the name of this implementation.
+         *
+         * @return the name
+         */
+        @NotNull
+        String name();
+
+        /**
+         * Creates a new encrypting cipher.
+         *
+         * @param key the shared secret
+         * @return a new cipher
+         */
+        @NotNull
+        MinecraftCipher forEncryption(@NotNull SecretKey key);
+
+        /**
+         * Creates a new decrypting cipher.
+         *
+         * @param key the shared secret
+         * @return a new cipher
+         */
+        @NotNull
+        MinecraftCipher forDecryption(@NotNull SecretKey key);
+    }
+}
@@ -0,0 +1,82 @@
+package me.marvin.proxy.natives;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * Represents the zlib compressor used for packet compression / decompression.
+ * <br>
+ * <b>Note: the destination buffers must be backed by a single {@link java.nio.ByteBuffer}
+ * (see {@link ByteBuf#nioBufferCount()}), like the ones allocated by the pooled allocator.</b>
+ */
+public interface MinecraftCompressor extends AutoCloseable {
+    /**
+     * Compresses the readable bytes of the source into the destination.
+     *
+     * @param source      the source
+     * @param destination the destination
+     * @throws DataFormatException if the compressor fails
+     */
+    void deflate(@NotNull ByteBuf source, @NotNull ByteBuf destination) throws DataFormatException;
+
+    /**
+     * Decompresses the readable bytes of the source into the destination.
+     *
+     * @param source           the source
+     * @param destination      the destination
+     * @param uncompressedSize the expected size of the decompressed data
+     * @throws DataFormatException if the data is malformed, or its size doesn't match the expected size
+     */
+    void inflate(@NotNull ByteBuf source, @NotNull ByteBuf destination, int uncompressedSize) throws DataFormatException;
+
+    /**
+     * Decompresses at most {@code length} bytes from the beginning of the compressed data,
+     * without modifying the reader index of the source.
+     *
+     * @param source           the source
+     * @param destination      the destination
+     * @param uncompressedSize the expected size of the decompressed data
+     * @param length           the maximum amount of bytes to decompress
+     * @throws DataFormatException if the data is malformed
+     */
+    default void inflatePrefix(@NotNull ByteBuf source, @NotNull ByteBuf destination, int uncompressedSize, int length) throws DataFormatException {
+        ByteBuf inflated = source.alloc().buffer(uncompressedSize, uncompressedSize);
+
+        try {
+            inflate(source.duplicate(), inflated, uncompressedSize);
+            destination.writeBytes(inflated, Math.min(length, uncompressedSize));
+        } finally {
+            inflated.release();
+        }
+    }
+
+    /**
+     * Releases the resources held by this compressor.
+     */
+    @Override
+    void close();
+
+    /**
+     * Creates {@link MinecraftCompressor compressors}.
+     */
+    interface Factory {
+        /**
+         * Returns the name of this implementation.
+         *
+         * @return the name
+         */
+        @NotNull
+        String name();
+
+        /**
+         * Creates a new compressor.
+         *
+         * @param level the compression level, between 0-9 or -1 for the default level
+         * @return a new compressor
+         */
+        @NotNull
+        MinecraftCompressor create(int level);
+    }
+}
@@ -0,0 +1,50 @@
+package me.marvin.proxy.natives;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ServiceLoader;
+
+/**
+ * Provides optimized (usually native) implementations, discovered through {@link ServiceLoader}.
+ * <br>
+ * Providers must be on the classpath of the proxy and registered in
+ * {@code META-INF/services/me.marvin.proxy.natives.NativeProvider}.
+ */
+public interface NativeProvider {
+    /**
+     * Returns the name of this provider.
+     *
+     * @return the name
+     */
+    @NotNull
+    String name();
+
+    /**
+     * Returns if this provider can be used on the current platform.
+     * This is the place to check the operating system / architecture and to load native libraries.
+     *
+     * @return true if this provider is available, false otherwise
+     */
+    boolean isAvailable();
+
+    /**
+     * Returns the cipher implementation of this provider.
+     *
+     * @return the cipher factory, or null if this provider doesn't provide one
+     */
+    @Nullable
+    default MinecraftCipher.Factory cipher() {
+        return null;
+    }
+
+    /**
+     * Returns the compressor implementation of this provider.
+     *
+     * @return the compressor factory, or null if this provider doesn't provide one
+     */
+    @Nullable
+    default MinecraftCompressor.Factory compressor() {
+        return null;
+    }
+}
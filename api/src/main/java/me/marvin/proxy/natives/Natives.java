@@ -0,0 +1,75 @@
+package me.marvin.proxy.natives;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ServiceLoader;
+import java.util.function.Function;
+
+/**
+ * Selects the cipher and compressor implementations once, at startup.
+ * <br>
+ * The first available {@link NativeProvider} wins, the pure Java implementations are used as a fallback.
+ * Providers can be disabled with {@code -Dproxy.natives=false}.
+ */
+public interface Natives {
+    /**
+     * Returns the selected cipher implementation.
+     *
+     * @return the cipher factory
+     */
+    @NotNull
+    static MinecraftCipher.Factory cipher() {
+        return Constants.CIPHER;
+    }
+
+    /**
+     * Returns the selected compressor implementation.
+     *
+     * @return the compressor factory
+     */
+    @NotNull
+    static MinecraftCompressor.Factory compressor() {
+        return Constants.COMPRESSOR;
+    }
+
+    final class Constants {
+        private static final Logger LOGGER = LogManager.getLogger("natives");
+        private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("proxy.natives", "true"));
+
+        /**
+         * The selected cipher implementation.
+         */
+        static final MinecraftCipher.Factory CIPHER = select(NativeProvider::cipher, JavaCipher.FACTORY);
+
+        /**
+         * The selected compressor implementation.
+         */
+        static final MinecraftCompressor.Factory COMPRESSOR = select(NativeProvider::compressor, JavaCompressor.FACTORY);
+
+        private static <T> T select(Function<NativeProvider, T> getter, T fallback) {
+            if (!ENABLED) {
+                return fallback;
+            }
+
+            for (NativeProvider provider : ServiceLoader.load(NativeProvider.class, Natives.class.getClassLoader())) {
+                try {
+                    // The implementation may link the native library, only asked for once the library is known to be available
+                    if (!provider.isAvailable()) {
+                        continue;
+                    }
+
+                    T implementation = getter.apply(provider);
+                    if (implementation != null) {
+                        return implementation;
+                    }
+                } catch (Throwable throwable) {
+                    LOGGER.warn("Can't use natives provided by {}", provider.name(), throwable);
+                }
+            }
+
+            return fallback;
+        }
+    }
+}
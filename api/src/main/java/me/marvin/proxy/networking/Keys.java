@@ -1,6 +1,7 @@
 package me.marvin.proxy.networking;
 
 import io.netty.util.AttributeKey;
+import me.marvin.proxy.metrics.ConnectionStats;
 
 /**
  * Pipeline attribute keys.
@@ -15,4 +16,14 @@ public interface Keys {
      * The key for the protocol version.
      */
     AttributeKey<Version> VERSION_KEY = AttributeKey.valueOf("protocol-version");
+
+    /**
+     * The key for the compression threshold of the packets relayed as-is, null if the proxy doesn't relay compressed packets.
+     */
+    AttributeKey<Integer> COMPRESSION_KEY = AttributeKey.valueOf("compression-threshold");
+
+    /**
+     * The key for the traffic statistics of client connections.
+     */
+    AttributeKey<ConnectionStats> STATS_KEY = AttributeKey.valueOf("connection-stats");
 }
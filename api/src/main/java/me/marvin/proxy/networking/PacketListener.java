@@ -1,11 +1,16 @@
 package me.marvin.proxy.networking;
 
 import io.netty.channel.Channel;
+import me.marvin.proxy.networking.packet.LazyPacket;
 import me.marvin.proxy.networking.packet.PacketType;
 import me.marvin.proxy.utils.Tristate;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * An interface what represents a low-level packet listener.
@@ -24,6 +29,65 @@ public interface PacketListener extends Comparable<PacketListener> {
      */
     byte priority();
 
+    /**
+     * Returns the owner of this listener, the time spent in the listener is attributed to it.
+     *
+     * @return the owner
+     * @see me.marvin.proxy.metrics.ListenerProfiler
+     */
+    @NotNull
+    default Object owner() {
+        return this;
+    }
+
+    /**
+     * Returns the packet types this listener is subscribed to.
+     *
+     * @return the packet types, or null if this listener is subscribed to every packet type
+     */
+    @Nullable
+    default Set<PacketType> packetTypes() {
+        return null;
+    }
+
+    /**
+     * Returns the directions this listener is subscribed to.
+     *
+     * @return the directions
+     */
+    @NotNull
+    default Set<ProtocolDirection> directions() {
+        return EnumSet.allOf(ProtocolDirection.class);
+    }
+
+    /**
+     * Returns the phases this listener is subscribed to.
+     *
+     * @return the phases
+     */
+    @NotNull
+    default Set<ProtocolPhase> phases() {
+        return EnumSet.allOf(ProtocolPhase.class);
+    }
+
+    /**
+     * Returns if this listener wants to receive packets of the given type. By default, this is
+     * resolved from {@link #packetTypes()}, {@link #directions()} and {@link #phases()}.
+     * Packets which no listener is interested in are relayed without being inspected.
+     * <br>
+     * <b>Note: the result must not change while this listener is registered, because
+     * the proxy only evaluates it when the registered listeners change.</b>
+     *
+     * @param type the packet type
+     * @return true if this listener should receive the packet type, false otherwise
+     */
+    default boolean interested(@NotNull PacketType type) {
+        Set<PacketType> types = packetTypes();
+        return (types == null || types.contains(type)) &&
+            directions().contains(type.direction()) &&
+            phases().contains(type.phase());
+    }
+
     /**
      * Handles the packet invoked on this {@link PacketListener}. It gets invoked by the
      * {@link #handle(PacketType, ByteBuf, Channel, ChannelHandlerContext, Version, Tristate)} method by default.
@@ -55,6 +119,22 @@ public interface PacketListener extends Comparable<PacketListener> {
         return handle(type, buf, sender, receiver, version);
     }
 
+    /**
+     * Handles the packet invoked on this {@link PacketListener}. This is the method invoked by the proxy,
+     * by default it delegates to {@link #handle(PacketType, ByteBuf, Channel, ChannelHandlerContext, Version, Tristate)}.
+     * <br>
+     * The decoded packet is shared between the listeners, see {@link LazyPacket}.
+     *
+     * @param packet    the packet
+     * @param sender    the sender
+     * @param receiver  the receiver
+     * @param cancelled the current state of the invocation
+     * @return false if the server should consume the packet, otherwise true
+     */
+    default Tristate handle(LazyPacket packet, Channel sender, ChannelHandlerContext receiver, Tristate cancelled) {
+        return handle(packet.type(), packet.buf(), sender, receiver, packet.version(), cancelled);
+    }
+
     /**
      * {@inheritDoc}
      *
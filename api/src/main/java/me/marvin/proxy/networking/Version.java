@@ -3,9 +3,6 @@ package me.marvin.proxy.networking;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.IntFunction;
-import java.util.stream.Collectors;
 
 /**
  * Represents a protocol version.
@@ -203,7 +200,8 @@ public interface Version {
      * @return the exact version, or a new version object
      */
     static Version exact(int version) {
-        return Constants.EXACT_VERSION_CACHE.computeIfAbsent(version, Version::version);
+        int index = Arrays.binarySearch(Constants.SORTED_PROTOCOLS, version);
+        return index >= 0 ? Constants.SORTED_VERSIONS[index] : version(version);
     }
 
     /**
@@ -223,7 +221,14 @@ public interface Version {
      * @return the closest version, or -1 if not found
      */
     static Version closest(int version) {
-        return Constants.CLOSEST_CACHE.computeIfAbsent(version, Constants.VERSION_MAPPER::apply);
+        int index = Arrays.binarySearch(Constants.SORTED_PROTOCOLS, version);
+
+        // Not a known version, using the newest known version older than it
+        if (index < 0) {
+            index = -index - 2;
+        }
+
+        return index >= 0 ? Constants.SORTED_VERSIONS[index] : Version.UNKNOWN;
     }
 
     /**
@@ -252,23 +257,17 @@ public interface Version {
             .toList();
 
         /**
-         * Exact version cache.
-         */
-        static final Map<Integer, Version> EXACT_VERSION_CACHE = VERSION_CACHE.stream()
-            .collect(Collectors.toMap(Version::version, Function.identity()));
-
-        /**
-         * Closest version cache.
+         * The known versions, sorted by their protocol versions.
          */
-        static final Map<Integer, Version> CLOSEST_CACHE = new HashMap<>(EXACT_VERSION_CACHE);
+        static final Version[] SORTED_VERSIONS = VERSION_CACHE.stream()
+            .sorted(Comparator.comparingInt(Version::version))
+            .toArray(Version[]::new);
 
         /**
-         * Version mapper.
+         * The protocol versions of {@link #SORTED_VERSIONS}, used for binary searches.
          */
-        static final IntFunction<Version> VERSION_MAPPER = ver -> CLOSEST_CACHE.values().stream()
-            .sorted(Comparator.<Version>comparingInt(Version::version).reversed())
-            .filter(v -> v.isOlderOr(ver))
-            .findFirst()
-            .orElse(Version.UNKNOWN);
+        static final int[] SORTED_PROTOCOLS = Arrays.stream(SORTED_VERSIONS)
+            .mapToInt(Version::version)
+            .toArray();
     }
 }
@@ -0,0 +1,121 @@
+package me.marvin.proxy.networking.packet;
+
+import me.marvin.proxy.networking.PacketListener;
+import me.marvin.proxy.networking.Version;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A packet passed to the {@link PacketListener packet listeners}, which is only decoded when needed.
+ * <br>
+ * The packet is decoded at most once, the decoded {@link Packet} is shared between the listeners.
+ * If a listener modifies the decoded packet, it has to call {@link #markModified()}, in that case the
+ * proxy re-encodes the packet instead of relaying the original one.
+ */
+public final class LazyPacket {
+    private final PacketType type;
+    private final ByteBuf buf;
+    private final Version version;
+    private Packet packet;
+    private boolean modified;
+
+    /**
+     * Creates a new lazy packet.
+     *
+     * @param type    the packet type
+     * @param buf     the buffer, positioned after the packet id
+     * @param version the version
+     */
+    public LazyPacket(@NotNull PacketType type, @NotNull ByteBuf buf, @NotNull Version version) {
+        this.type = type;
+        this.buf = buf;
+        this.version = version;
+    }
+
+    /**
+     * Returns the type of this packet.
+     *
+     * @return the packet type
+     */
+    @NotNull
+    public PacketType type() {
+        return type;
+    }
+
+    /**
+     * Returns the raw packet, positioned after the packet id.
+     * <br>
+     * <b>Note: modifying the buffer after {@link #markModified() marking the packet as modified} has no effect.</b>
+     *
+     * @return the buffer
+     */
+    @NotNull
+    public ByteBuf buf() {
+        return buf;
+    }
+
+    /**
+     * Returns the version of this packet.
+     *
+     * @return the version
+     */
+    @NotNull
+    public Version version() {
+        return version;
+    }
+
+    /**
+     * Returns if this packet can be decoded, see {@link PacketFactories}.
+     *
+     * @return true if this packet can be decoded, false otherwise
+     */
+    public boolean decodable() {
+        return packet != null || PacketFactories.has(type);
+    }
+
+    /**
+     * Returns the decoded packet, decoding it on the first call.
+     *
+     * @param <T> the type of the packet
+     * @return the decoded packet
+     * @throws NullPointerException if there's no implementation for the type of this packet
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T extends Packet> T packet() {
+        if (packet == null) {
+            Packet decoded = PacketFactories.createThrowing(type);
+            decoded.decode(buf.duplicate(), version);
+            packet = decoded;
+        }
+
+        return (T) packet;
+    }
+
+    /**
+     * Replaces this packet with the given one.
+     *
+     * @param packet the new packet
+     */
+    public void replace(@NotNull Packet packet) {
+        this.packet = packet;
+        this.modified = true;
+    }
+
+    /**
+     * Marks the decoded packet as modified, so it gets re-encoded.
+     */
+    public void markModified() {
+        packet();
+        modified = true;
+    }
+
+    /**
+     * Returns if this packet was modified.
+     *
+     * @return true if this packet has to be re-encoded, false otherwise
+     */
+    public boolean modified() {
+        return modified;
+    }
+}
@@ -0,0 +1,88 @@
+package me.marvin.proxy.networking.packet;
+
+import me.marvin.proxy.networking.packet.impl.handshake.client.LoginStart;
+import me.marvin.proxy.networking.packet.impl.handshake.client.SetProtocol;
+import me.marvin.proxy.networking.packet.impl.login.client.EncryptionResponse;
+import me.marvin.proxy.networking.packet.impl.login.server.EncryptionRequest;
+import me.marvin.proxy.networking.packet.impl.login.server.SetCompression;
+import me.marvin.proxy.networking.packet.impl.play.client.KeepAliveResponse;
+import me.marvin.proxy.networking.packet.impl.play.server.KeepAlive;
+import me.marvin.proxy.networking.packet.impl.status.client.StatusPing;
+import me.marvin.proxy.networking.packet.impl.status.client.StatusStart;
+import me.marvin.proxy.networking.packet.impl.status.server.ServerInfo;
+import me.marvin.proxy.networking.packet.impl.status.server.StatusPong;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The registry of {@link Packet packet} implementations, used to decode the packets of a given type.
+ */
+public interface PacketFactories {
+    /**
+     * Registers a packet implementation for the given packet type, replacing the previous one.
+     *
+     * @param type    the packet type
+     * @param factory the factory creating empty packets of the given type
+     */
+    static void register(@NotNull PacketType type, @NotNull Supplier<? extends Packet> factory) {
+        Constants.FACTORIES.put(type, factory);
+    }
+
+    /**
+     * Returns if there's a packet implementation for the given packet type.
+     *
+     * @param type the packet type
+     * @return true if the packet type has an implementation, false otherwise
+     */
+    static boolean has(@NotNull PacketType type) {
+        return Constants.FACTORIES.containsKey(type);
+    }
+
+    /**
+     * Creates an empty packet of the given type.
+     *
+     * @param type the packet type
+     * @return a new packet, or null if there's no implementation for the given packet type
+     */
+    @Nullable
+    static Packet create(@NotNull PacketType type) {
+        Supplier<? extends Packet> factory = Constants.FACTORIES.get(type);
+        return factory == null ? null : factory.get();
+    }
+
+    /**
+     * Creates an empty packet of the given type.
+     *
+     * @param type the packet type
+     * @return a new packet
+     * @throws NullPointerException if there's no implementation for the given packet type
+     */
+    @NotNull
+    static Packet createThrowing(@NotNull PacketType type) {
+        return Objects.requireNonNull(create(type), "no packet implementation for " + type);
+    }
+
+    final class Constants {
+        /**
+         * The registered packet factories.
+         */
+        static final Map<PacketType, Supplier<? extends Packet>> FACTORIES = new ConcurrentHashMap<>(Map.ofEntries(
+            Map.entry(PacketTypes.Handshake.Client.SET_PROTOCOL, SetProtocol::new),
+            Map.entry(PacketTypes.Login.Client.LOGIN_START, LoginStart::new),
+            Map.entry(PacketTypes.Login.Client.ENCRYPTION_RESPONSE, EncryptionResponse::new),
+            Map.entry(PacketTypes.Login.Server.ENCRYPTION_REQUEST, EncryptionRequest::new),
+            Map.entry(PacketTypes.Login.Server.SET_COMPRESSION, SetCompression::new),
+            Map.entry(PacketTypes.Status.Client.START, StatusStart::new),
+            Map.entry(PacketTypes.Status.Client.PING, StatusPing::new),
+            Map.entry(PacketTypes.Status.Server.SERVER_INFO, ServerInfo::new),
+            Map.entry(PacketTypes.Status.Server.PONG, StatusPong::new),
+            Map.entry(PacketTypes.Play.Client.KEEP_ALIVE, KeepAliveResponse::new),
+            Map.entry(PacketTypes.Play.Server.KEEP_ALIVE, KeepAlive::new)
+        ));
+    }
+}
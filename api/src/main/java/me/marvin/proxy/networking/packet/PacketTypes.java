@@ -33,6 +33,16 @@ public interface PacketTypes {
         Play.load();
     }
 
+    /**
+     * Returns every known packet type.
+     *
+     * @return all the packet types
+     */
+    @NotNull
+    static List<PacketType> values() {
+        return Cache.VALUES;
+    }
+
     /**
      * Tries to find the packet type according to the given version and id.
      *
@@ -59,19 +69,25 @@ public interface PacketTypes {
      */
     @Nullable
     static PacketType find(@NotNull ProtocolDirection direction, @NotNull ProtocolPhase phase, int id, @NotNull Version version) {
-        Map<Version, PacketType[]> packetMap = Cache.VERSIONS.get(phase).get(direction);
-        PacketType[] types = packetMap.get(version);
-
-        if (types != null) {
-            return types.length > id ? types[id] : null;
-        }
-
-        Version closest = Cache.CLOSEST_VERSION_CACHE.computeIfAbsent(version, __ -> Cache.findClosest(version));
-        types = packetMap.get(closest);
-
+        PacketType[] types = types(direction, phase, version);
         return types.length > id ? types[id] : null;
     }
 
+    /**
+     * Returns the packet types of the given version, indexed by their ids.
+     * <br>
+     * <b>Note: the returned array is shared, it must not be modified.</b>
+     *
+     * @param direction the direction
+     * @param phase the phase
+     * @param version the version
+     * @return the packet types, unknown ids are mapped to null
+     */
+    @NotNull
+    static PacketType[] types(@NotNull ProtocolDirection direction, @NotNull ProtocolPhase phase, @NotNull Version version) {
+        return Cache.TYPES[phase.ordinal()][direction.ordinal()][Protocols.ordinal(version.version())];
+    }
+
     /**
      * Mutable packet type.
      */
@@ -84,7 +100,7 @@ public interface PacketTypes {
          */
         @Override
         default int id(@NotNull Version version) {
-            return PacketType.super.id(Cache.CLOSEST_VERSION_CACHE.computeIfAbsent(version, __ -> Cache.findClosest(version)).version());
+            return ids()[Protocols.ordinal(version.version())];
         }
 
         /**
@@ -95,8 +111,18 @@ public interface PacketTypes {
          */
         @Override
         default int id(int version) {
-            return PacketType.super.id(Cache.findClosest(Version.exact(version)).version());
+            return ids()[Protocols.ordinal(version)];
         }
+
+        /**
+         * Returns the ids of this packet, indexed by the ordinals of the main protocol versions.
+         * <br>
+         * <b>Note: the returned array is shared, it must not be modified.</b>
+         *
+         * @return the ids of this packet, -1 if it doesn't exist for a version
+         */
+        @NotNull
+        int[] ids();
     }
 
     /**
@@ -117,6 +143,7 @@ public interface PacketTypes {
             SET_PROTOCOL;
 
             private final Map<Integer, Integer> versionMap = new HashMap<>();
+            private final int[] ids = Protocols.newIds();
 
             @Override
             @NotNull
@@ -124,6 +151,12 @@ public interface PacketTypes {
                 return Collections.unmodifiableMap(versionMap);
             }
 
+            @Override
+            @NotNull
+            public int[] ids() {
+                return ids;
+            }
+
             @Override
             @NotNull
             public ProtocolDirection direction() {
@@ -158,6 +191,7 @@ public interface PacketTypes {
             USE_ITEM;
 
             private final Map<Integer, Integer> versionMap = new HashMap<>();
+            private final int[] ids = Protocols.newIds();
 
             @Override
             @NotNull
@@ -165,6 +199,12 @@ public interface PacketTypes {
                 return Collections.unmodifiableMap(versionMap);
             }
 
+            @Override
+            @NotNull
+            public int[] ids() {
+                return ids;
+            }
+
             @Override
             @NotNull
             public ProtocolDirection direction() {
@@ -190,6 +230,7 @@ public interface PacketTypes {
             ENTITY_EFFECT, DECLARE_RECIPES, TAGS;
 
             private final Map<Integer, Integer> versionMap = new HashMap<>();
+            private final int[] ids = Protocols.newIds();
 
             @Override
             @NotNull
@@ -197,6 +238,12 @@ public interface PacketTypes {
                 return Collections.unmodifiableMap(versionMap);
             }
 
+            @Override
+            @NotNull
+            public int[] ids() {
+                return ids;
+            }
+
             @Override
             @NotNull
             public ProtocolDirection direction() {
@@ -224,6 +271,7 @@ public interface PacketTypes {
             START, PING;
 
             private final Map<Integer, Integer> versionMap = new HashMap<>();
+            private final int[] ids = Protocols.newIds();
 
             @Override
             @NotNull
@@ -231,6 +279,12 @@ public interface PacketTypes {
                 return Collections.unmodifiableMap(versionMap);
             }
 
+            @Override
+            @NotNull
+            public int[] ids() {
+                return ids;
+            }
+
             @Override
             @NotNull
             public ProtocolDirection direction() {
@@ -242,6 +296,7 @@ public interface PacketTypes {
             SERVER_INFO, PONG;
 
             private final Map<Integer, Integer> versionMap = new HashMap<>();
+            private final int[] ids = Protocols.newIds();
 
             @Override
             @NotNull
@@ -249,6 +304,12 @@ public interface PacketTypes {
                 return Collections.unmodifiableMap(versionMap);
             }
 
+            @Override
+            @NotNull
+            public int[] ids() {
+                return ids;
+            }
+
             @Override
             @NotNull
             public ProtocolDirection direction() {
@@ -276,6 +337,7 @@ public interface PacketTypes {
             LOGIN_START, ENCRYPTION_RESPONSE, LOGIN_PLUGIN_RESPONSE;
 
             private final Map<Integer, Integer> versionMap = new HashMap<>();
+            private final int[] ids = Protocols.newIds();
 
             @Override
             @NotNull
@@ -283,6 +345,12 @@ public interface PacketTypes {
                 return Collections.unmodifiableMap(versionMap);
             }
 
+            @Override
+            @NotNull
+            public int[] ids() {
+                return ids;
+            }
+
             @Override
             @NotNull
             public ProtocolDirection direction() {
@@ -294,6 +362,7 @@ public interface PacketTypes {
             DISCONNECT, ENCRYPTION_REQUEST, LOGIN_SUCCESS, SET_COMPRESSION, LOGIN_PLUGIN_REQUEST;
 
             private final Map<Integer, Integer> versionMap = new HashMap<>();
+            private final int[] ids = Protocols.newIds();
 
             @Override
             @NotNull
@@ -301,6 +370,12 @@ public interface PacketTypes {
                 return Collections.unmodifiableMap(versionMap);
             }
 
+            @Override
+            @NotNull
+            public int[] ids() {
+                return ids;
+            }
+
             @Override
             @NotNull
             public ProtocolDirection direction() {
@@ -309,10 +384,13 @@ public interface PacketTypes {
         }
     }
 
-    final class Cache {
-        private static final Map<ProtocolPhase, Map<ProtocolDirection, Map<Version, PacketType[]>>> VERSIONS = new EnumMap<>(ProtocolPhase.class);
-        private static final Map<Version, Version> CLOSEST_VERSION_CACHE = new HashMap<>();
-
+    /**
+     * The main protocol versions, which have their own packet mappings.
+     * <br>
+     * Every protocol version is resolved to the ordinal of the newest main version not newer than itself,
+     * using a table precomputed for the known protocol range.
+     */
+    final class Protocols {
         private static final List<Tuple<Version, String>> MAIN_PROTOCOL_VERSIONS = Stream.of(
             Tuple.tuple(Version.V1_7_2, "V1_7_2"),
             Tuple.tuple(Version.V1_8, "V1_8"),
@@ -327,13 +405,72 @@ public interface PacketTypes {
             Tuple.tuple(Version.V1_17, "V1_17"),
             Tuple.tuple(Version.V1_18, "V1_18")
         ).toList();
+        private static final int LATEST = MAIN_PROTOCOL_VERSIONS.size() - 1;
+        private static final int[] ORDINALS = ordinals();
+
+        /**
+         * Returns the ordinal of the main version used by the given protocol version.
+         * Protocol versions older than every main version are mapped to the latest one.
+         *
+         * @param protocol the protocol version
+         * @return the ordinal of the main version
+         */
+        static int ordinal(int protocol) {
+            return protocol >= 0 && protocol < ORDINALS.length ? ORDINALS[protocol] : LATEST;
+        }
+
+        /**
+         * Creates an empty id table.
+         *
+         * @return a new id table, filled with -1
+         */
+        static int[] newIds() {
+            int[] ids = new int[MAIN_PROTOCOL_VERSIONS.size()];
+            Arrays.fill(ids, -1);
+            return ids;
+        }
+
+        private static int[] ordinals() {
+            int[] ordinals = new int[MAIN_PROTOCOL_VERSIONS.get(LATEST).first().version() + 1];
+            int ordinal = -1;
+
+            for (int protocol = 0; protocol < ordinals.length; protocol++) {
+                // The main versions are in ascending order
+                while (ordinal < LATEST && MAIN_PROTOCOL_VERSIONS.get(ordinal + 1).first().version() <= protocol) {
+                    ordinal++;
+                }
+
+                ordinals[protocol] = ordinal == -1 ? LATEST : ordinal;
+            }
+
+            return ordinals;
+        }
+    }
+
+    final class Cache {
+        private static final PacketType[][][][] TYPES = new PacketType[ProtocolPhase.values().length][ProtocolDirection.values().length][Protocols.MAIN_PROTOCOL_VERSIONS.size()][];
+        private static final List<PacketType> VALUES = Stream.of(
+            Handshake.Client.values(),
+            Status.Client.values(), Status.Server.values(),
+            Login.Client.values(), Login.Server.values(),
+            Play.Client.values(), Play.Server.values()
+        ).<PacketType>flatMap(Arrays::stream).toList();
+
+        static {
+            for (PacketType[][][] directions : TYPES) {
+                for (PacketType[][] versions : directions) {
+                    Arrays.fill(versions, new PacketType[0]);
+                }
+            }
+        }
 
         private static <T extends Enum<?> & MutablePacketType> void loadMappings(Class<T> clazz, JsonObject mapping, Function<T, Map<Integer, Integer>> registry) {
             T[] rawConstants = clazz.getEnumConstants();
             Map<String, T> constants = Arrays.stream(rawConstants)
                 .collect(Collectors.toMap(e -> e.name(), Function.identity()));
 
-            for (Tuple<Version, String> tuple : MAIN_PROTOCOL_VERSIONS) {
+            for (int ordinal = 0; ordinal < Protocols.MAIN_PROTOCOL_VERSIONS.size(); ordinal++) {
+                Tuple<Version, String> tuple = Protocols.MAIN_PROTOCOL_VERSIONS.get(ordinal);
                 Version version = tuple.first();
                 if (mapping.has(tuple.second())) {
                     JsonArray array = mapping.getAsJsonArray(tuple.second());
@@ -342,36 +479,28 @@ public interface PacketTypes {
                         T packet = Objects.requireNonNull(constants.get(array.get(i).getAsString()), "can't add id because packet is null (" + clazz.getName() + ", " + array +  ", " + array.get(i).getAsString() + ", " + version.toString() + ")");
                         registry.apply(packet)
                             .put(version.version(), i);
+                        packet.ids()[ordinal] = i;
                     }
 
-                    registerVersion(version, rawConstants);
+                    registerVersion(ordinal, rawConstants);
                 }
             }
         }
 
-        private static void registerVersion(Version version, PacketType[] types) {
-            for (PacketType type : types) {
-                PacketType[] perVerSection = VERSIONS
-                    .computeIfAbsent(type.phase(), __ -> new EnumMap<>(ProtocolDirection.class))
-                    .computeIfAbsent(type.direction(), __ -> new HashMap<>())
-                    .computeIfAbsent(version, __ -> new PacketType[types.length]);
-                int id = type.id(version);
+        private static void registerVersion(int ordinal, MutablePacketType[] types) {
+            for (MutablePacketType type : types) {
+                PacketType[][] perDirection = TYPES[type.phase().ordinal()][type.direction().ordinal()];
+                if (perDirection[ordinal].length == 0) {
+                    perDirection[ordinal] = new PacketType[types.length];
+                }
+
+                int id = type.ids()[ordinal];
                 if (id != -1) {
-                    perVerSection[id] = type;
+                    perDirection[ordinal][id] = type;
                 }
             }
         }
 
-        private static Version findClosest(Version version) {
-            return MAIN_PROTOCOL_VERSIONS.stream()
-                .map(Tuple::first)
-                .filter(Objects::nonNull)
-                .sorted(Comparator.<Version>comparingInt(Version::version).reversed())
-                .filter(v -> v.isOlderOr(version))
-                .findFirst()
-                .orElse(MAIN_PROTOCOL_VERSIONS.get(MAIN_PROTOCOL_VERSIONS.size() - 1).first());
-        }
-
         private static JsonObject mapping(String path) {
             path = "packet/" + path;
             InputStream stream = Objects.requireNonNull(PacketTypes.class.getClassLoader().getResourceAsStream(path), "can't find resource '" + path + "'");
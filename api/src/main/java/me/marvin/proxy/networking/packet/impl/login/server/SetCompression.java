@@ -0,0 +1,49 @@
+package me.marvin.proxy.networking.packet.impl.login.server;
+
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.Packet;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
+import static me.marvin.proxy.utils.ByteBufUtils.writeVarInt;
+
+public class SetCompression implements Packet {
+    private int threshold;
+
+    public SetCompression() {
+        this(-1);
+    }
+
+    public SetCompression(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void encode(@NotNull ByteBuf buf, @NotNull Version version) {
+        writeVarInt(buf, threshold);
+    }
+
+    @Override
+    public void decode(@NotNull ByteBuf buf, @NotNull Version version) {
+        threshold = readVarInt(buf);
+    }
+
+    @Override
+    @NotNull
+    public PacketType type() {
+        return PacketTypes.Login.Server.SET_COMPRESSION;
+    }
+
+    public int threshold() {
+        return threshold;
+    }
+
+    @NotNull
+    public SetCompression threshold(int threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+}
@@ -0,0 +1,55 @@
+package me.marvin.proxy.networking.packet.impl.play.server;
+
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.Packet;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
+import static me.marvin.proxy.utils.ByteBufUtils.writeVarInt;
+
+public class KeepAlive implements Packet {
+    private long id;
+
+    public KeepAlive() {
+        this(0);
+    }
+
+    public KeepAlive(long id) {
+        this.id = id;
+    }
+
+    @Override
+    public void encode(@NotNull ByteBuf buf, @NotNull Version version) {
+        if (version.isOlderThan(Version.V1_8)) {
+            buf.writeInt((int) id);
+        } else if (version.isOlderThan(Version.V1_12_2)) {
+            writeVarInt(buf, (int) id);
+        } else {
+            buf.writeLong(id);
+        }
+    }
+
+    @Override
+    public void decode(@NotNull ByteBuf buf, @NotNull Version version) {
+        if (version.isOlderThan(Version.V1_8)) {
+            id = buf.readInt();
+        } else if (version.isOlderThan(Version.V1_12_2)) {
+            id = readVarInt(buf);
+        } else {
+            id = buf.readLong();
+        }
+    }
+
+    @Override
+    @NotNull
+    public PacketType type() {
+        return PacketTypes.Play.Server.KEEP_ALIVE;
+    }
+
+    public long id() {
+        return id;
+    }
+}
@@ -0,0 +1,40 @@
+package me.marvin.proxy.networking.packet.impl.status.client;
+
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.Packet;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+public class StatusPing implements Packet {
+    private long payload;
+
+    public StatusPing() {
+        this(0);
+    }
+
+    public StatusPing(long payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public void encode(@NotNull ByteBuf buf, @NotNull Version version) {
+        buf.writeLong(payload);
+    }
+
+    @Override
+    public void decode(@NotNull ByteBuf buf, @NotNull Version version) {
+        payload = buf.readLong();
+    }
+
+    @Override
+    @NotNull
+    public PacketType type() {
+        return PacketTypes.Status.Client.PING;
+    }
+
+    public long payload() {
+        return payload;
+    }
+}
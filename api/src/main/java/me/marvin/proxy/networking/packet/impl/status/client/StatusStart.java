@@ -0,0 +1,24 @@
+package me.marvin.proxy.networking.packet.impl.status.client;
+
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.Packet;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+public class StatusStart implements Packet {
+    @Override
+    public void encode(@NotNull ByteBuf buf, @NotNull Version version) {
+    }
+
+    @Override
+    public void decode(@NotNull ByteBuf buf, @NotNull Version version) {
+    }
+
+    @Override
+    @NotNull
+    public PacketType type() {
+        return PacketTypes.Status.Client.START;
+    }
+}
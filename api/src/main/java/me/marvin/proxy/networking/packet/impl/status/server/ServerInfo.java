@@ -0,0 +1,44 @@
+package me.marvin.proxy.networking.packet.impl.status.server;
+
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.Packet;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import static me.marvin.proxy.utils.ByteBufUtils.readString;
+import static me.marvin.proxy.utils.ByteBufUtils.writeString;
+
+public class ServerInfo implements Packet {
+    private String response;
+
+    public ServerInfo() {
+        this(null);
+    }
+
+    public ServerInfo(String response) {
+        this.response = response;
+    }
+
+    @Override
+    public void encode(@NotNull ByteBuf buf, @NotNull Version version) {
+        writeString(buf, response);
+    }
+
+    @Override
+    public void decode(@NotNull ByteBuf buf, @NotNull Version version) {
+        response = readString(buf, Short.MAX_VALUE);
+    }
+
+    @Override
+    @NotNull
+    public PacketType type() {
+        return PacketTypes.Status.Server.SERVER_INFO;
+    }
+
+    @NotNull
+    public String response() {
+        return response;
+    }
+}
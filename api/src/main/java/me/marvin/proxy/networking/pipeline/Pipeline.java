@@ -48,4 +48,24 @@ public interface Pipeline {
      * The identifier of the packet serializer.
      */
     String PACKET_SERIALIZER = "packet-serializer";
+
+    /**
+     * The identifier of the handler guarding the idle pooled backend connections.
+     */
+    String POOLED_CONNECTION = "pooled-connection";
+
+    /**
+     * The identifier of the handler counting the transferred bytes.
+     */
+    String TRAFFIC_COUNTER = "traffic-counter";
+
+    /**
+     * The identifier of the handler requesting the status of a backend.
+     */
+    String STATUS_REQUEST = "status-request";
+
+    /**
+     * The identifier of the handler answering status requests from the cache.
+     */
+    String STATUS_RESPONDER = "status-responder";
 }
@@ -1,32 +1,37 @@
 package me.marvin.proxy.networking.pipeline.game;
 
-import me.marvin.proxy.utils.MinecraftEncryption;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.natives.MinecraftCipher;
+import me.marvin.proxy.natives.Natives;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 
-import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
 import java.util.List;
 
+/**
+ * Decrypts the inbound buffers in place.
+ */
 public class CipherDecoder extends MessageToMessageDecoder<ByteBuf> {
-    private final Cipher cipher;
-    private byte[] inputArr = new byte[0];
+    private final MinecraftCipher cipher;
 
     public CipherDecoder(SecretKey key) {
-        this.cipher = MinecraftEncryption.createEncryptionCipher(Cipher.DECRYPT_MODE, key);
+        this.cipher = Natives.cipher().forDecryption(key);
     }
 
     @Override
-    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        int len = in.readableBytes();
-        if (inputArr.length < len) {
-            inputArr = new byte[len];
-        }
-        in.readBytes(inputArr, 0, len);
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws GeneralSecurityException {
+        long start = System.nanoTime();
+        cipher.process(in);
+        ProxyMetrics.DECRYPT.observeSince(start);
+        out.add(in.retain());
+    }
 
-        ByteBuf tempBuf = ctx.alloc().heapBuffer(cipher.getOutputSize(len));
-        tempBuf.writerIndex(cipher.update(inputArr, 0, len, tempBuf.array(), tempBuf.arrayOffset()));
-        out.add(tempBuf);
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        cipher.close();
+        super.handlerRemoved(ctx);
     }
 }
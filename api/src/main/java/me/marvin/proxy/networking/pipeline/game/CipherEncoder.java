@@ -1,35 +1,40 @@
 package me.marvin.proxy.networking.pipeline.game;
 
-import me.marvin.proxy.utils.MinecraftEncryption;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.natives.MinecraftCipher;
+import me.marvin.proxy.natives.Natives;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
-import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
-import javax.crypto.ShortBufferException;
+import java.security.GeneralSecurityException;
+import java.util.List;
 
-public class CipherEncoder extends MessageToByteEncoder<ByteBuf> {
-    private final Cipher cipher;
-    private byte[] inputArr = new byte[0];
-    private byte[] outputArr = new byte[0];
+/**
+ * Encrypts the outbound buffers in place.
+ * <br>
+ * <b>Note: the buffers must not be shared, this encoder sits right after the
+ * {@link VarIntFrameEncoder frame encoder} which always allocates a new buffer.</b>
+ */
+public class CipherEncoder extends MessageToMessageEncoder<ByteBuf> {
+    private final MinecraftCipher cipher;
 
     public CipherEncoder(SecretKey key) {
-        this.cipher = MinecraftEncryption.createEncryptionCipher(Cipher.ENCRYPT_MODE, key);
+        this.cipher = Natives.cipher().forEncryption(key);
     }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws ShortBufferException {
-        int inLen = in.readableBytes();
-        if (inputArr.length < inLen) {
-            inputArr = new byte[inLen];
-        }
-        in.readBytes(inputArr, 0, inLen);
+    protected void encode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws GeneralSecurityException {
+        long start = System.nanoTime();
+        cipher.process(in);
+        ProxyMetrics.ENCRYPT.observeSince(start);
+        out.add(in.retain());
+    }
 
-        int outLen = cipher.getOutputSize(inLen);
-        if (outputArr.length < outLen) {
-            outputArr = new byte[outLen];
-        }
-        out.writeBytes(outputArr, 0, cipher.update(inputArr, 0, inLen, outputArr));
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        cipher.close();
+        super.handlerRemoved(ctx);
     }
 }
@@ -3,42 +3,52 @@ package me.marvin.proxy.networking.pipeline.game;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.natives.MinecraftCompressor;
+import me.marvin.proxy.natives.Natives;
 
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 
 import static me.marvin.proxy.utils.ByteBufUtils.writeVarInt;
 
 public class PacketCompressor extends MessageToByteEncoder<ByteBuf> {
     private final int threshold;
-    private final Deflater deflater;
-    private final byte[] buffer = new byte[8192];
+    private final MinecraftCompressor compressor;
 
     public PacketCompressor(int threshold) {
+        this(threshold, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public PacketCompressor(int threshold, int level) {
         this.threshold = threshold;
-        this.deflater = new Deflater();
+        this.compressor = Natives.compressor().create(level);
     }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) {
+    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) throws DataFormatException {
         int size = in.readableBytes();
 
         if (size < threshold) {
             writeVarInt(out, 0);
             out.writeBytes(in);
         } else {
-            byte[] input = new byte[size];
-            in.readBytes(input);
-            writeVarInt(out, input.length);
-
-            deflater.setInput(input, 0, size);
-            deflater.finish();
+            writeVarInt(out, size);
+            long start = System.nanoTime();
+            compressor.deflate(in, out);
+            ProxyMetrics.DEFLATE.observeSince(start);
+        }
+    }
 
-            while (!deflater.finished()) {
-                int deflatedSize = deflater.deflate(buffer);
-                out.writeBytes(buffer, 0, deflatedSize);
-            }
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) {
+        // Enough for the uncompressed data and its header, so the common case never has to grow
+        return ctx.alloc().directBuffer(msg.readableBytes() + 5);
+    }
 
-            deflater.reset();
-        }
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        compressor.close();
+        super.handlerRemoved(ctx);
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,27 @@
 package me.marvin.proxy.networking.pipeline.game;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.DecoderException;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.natives.MinecraftCompressor;
+import me.marvin.proxy.natives.Natives;
 
 import java.util.List;
-import java.util.zip.Inflater;
+import java.util.zip.Deflater;
 
 import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
 
 public class PacketDecompressor extends ByteToMessageDecoder {
     private static final int PACKET_LIMIT = 1024 * 1024 * 2; // 2 MB
 
-    private final Inflater inflater;
+    private final MinecraftCompressor compressor;
     private final int threshold;
 
     public PacketDecompressor(int threshold) {
         this.threshold = threshold;
-        this.inflater = new Inflater();
+        this.compressor = Natives.compressor().create(Deflater.DEFAULT_COMPRESSION);
     }
 
     @Override
@@ -28,7 +30,7 @@ public class PacketDecompressor extends ByteToMessageDecoder {
             int size = readVarInt(in);
 
             if (size == 0) {
-                out.add(in.readBytes(in.readableBytes()));
+                out.add(in.readRetainedSlice(in.readableBytes()));
             } else {
                 if (size < threshold) {
                     throw new DecoderException("Badly compressed packet - size of " + size + " is below server threshold of " + threshold);
@@ -38,15 +40,23 @@ public class PacketDecompressor extends ByteToMessageDecoder {
                     throw new DecoderException("Badly compressed packet - size of " + size + " is larger than protocol maximum of " + PACKET_LIMIT);
                 }
 
-                byte[] input = new byte[in.readableBytes()];
-                in.readBytes(input);
-                inflater.setInput(input);
-
-                byte[] output = new byte[size];
-                inflater.inflate(output);
-                out.add(Unpooled.wrappedBuffer(output));
-                inflater.reset();
+                ByteBuf decompressed = ctx.alloc().directBuffer(size, size);
+                try {
+                    long start = System.nanoTime();
+                    compressor.inflate(in, decompressed, size);
+                    ProxyMetrics.INFLATE.observeSince(start);
+                    out.add(decompressed);
+                } catch (Exception ex) {
+                    decompressed.release();
+                    throw ex;
+                }
             }
         }
     }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        compressor.close();
+        super.handlerRemoved0(ctx);
+    }
 }
@@ -1,5 +1,9 @@
 package me.marvin.proxy.networking.pipeline.game;
 
+import me.marvin.proxy.metrics.ConnectionStats;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.natives.MinecraftCompressor;
+import me.marvin.proxy.natives.Natives;
 import me.marvin.proxy.networking.Keys;
 import me.marvin.proxy.networking.Version;
 import me.marvin.proxy.networking.packet.Packet;
@@ -7,16 +11,74 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
 import static me.marvin.proxy.utils.ByteBufUtils.writeVarInt;
 
 /**
  * Simple encoder for {@link Packet packets}.
+ * <br>
+ * If the channel relays compressed packets as-is (see {@link Keys#COMPRESSION_KEY}),
+ * the packets are written in the compressed format too.
+ * <br>
+ * The packets written to clients are counted in their {@link Keys#STATS_KEY statistics}.
  */
 public class PacketSerializer extends MessageToByteEncoder<Packet> {
+    private MinecraftCompressor compressor;
+
     @Override
-    protected void encode(ChannelHandlerContext ctx, Packet msg, ByteBuf out) {
+    protected void encode(ChannelHandlerContext ctx, Packet msg, ByteBuf out) throws DataFormatException {
         Version version = ctx.channel().attr(Keys.VERSION_KEY).get();
-        writeVarInt(out, msg.type().id(version));
-        msg.encode(out, version);
+        Integer threshold = ctx.channel().attr(Keys.COMPRESSION_KEY).get();
+
+        ConnectionStats stats = ctx.channel().attr(Keys.STATS_KEY).get();
+
+        if (threshold == null) {
+            int writerIndex = out.writerIndex();
+            writeVarInt(out, msg.type().id(version));
+            msg.encode(out, version);
+
+            if (stats != null) {
+                stats.packetOut(out.writerIndex() - writerIndex);
+            }
+            return;
+        }
+
+        ByteBuf packet = ctx.alloc().buffer();
+        try {
+            writeVarInt(packet, msg.type().id(version));
+            msg.encode(packet, version);
+
+            int size = packet.readableBytes();
+            if (stats != null) {
+                stats.packetOut(size);
+            }
+
+            if (size < threshold) {
+                writeVarInt(out, 0);
+                out.writeBytes(packet);
+            } else {
+                if (compressor == null) {
+                    compressor = Natives.compressor().create(Deflater.DEFAULT_COMPRESSION);
+                }
+
+                writeVarInt(out, size);
+                long start = System.nanoTime();
+                compressor.deflate(packet, out);
+                ProxyMetrics.DEFLATE.observeSince(start);
+            }
+        } finally {
+            packet.release();
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        if (compressor != null) {
+            compressor.close();
+        }
+
+        super.handlerRemoved(ctx);
     }
 }
@@ -1,17 +1,21 @@
 package me.marvin.proxy.networking.pipeline.game;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.CorruptedFrameException;
 
 import java.util.List;
 
-import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
-
+/**
+ * Splits the inbound stream into frames prefixed by their VarInt encoded length.
+ * <br>
+ * The length is parsed in place and the frames are emitted as retained slices of the cumulation,
+ * so framing neither allocates nor copies.
+ */
 public class VarIntFrameDecoder extends ByteToMessageDecoder {
     private static final CorruptedFrameException WIDER_FRAME = new CorruptedFrameException("Length wider than 21-bit");
+    private static final int MAX_HEADER_LENGTH = 3;
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
@@ -20,29 +24,24 @@ public class VarIntFrameDecoder extends ByteToMessageDecoder {
             return;
         }
 
-        in.markReaderIndex();
-        byte[] buffer = new byte[3];
+        int readerIndex = in.readerIndex();
+        int readable = in.readableBytes();
+        int len = 0;
 
-        for (int i = 0; i < buffer.length; ++i) {
-            if (!in.isReadable()) {
-                in.resetReaderIndex();
+        for (int i = 0; i < MAX_HEADER_LENGTH; i++) {
+            if (i == readable) {
                 return;
             }
 
-            if ((buffer[i] = in.readByte()) >= 0) {
-                ByteBuf buf = Unpooled.wrappedBuffer(buffer);
-
-                try {
-                    int len = readVarInt(buf);
+            byte b = in.getByte(readerIndex + i);
+            len |= (b & 0x7F) << (i * 7);
 
-                    if (in.readableBytes() >= len) {
-                        out.add(in.readBytes(len));
-                        return;
-                    }
+            if (b >= 0) {
+                int headerLen = i + 1;
 
-                    in.resetReaderIndex();
-                } finally {
-                    buf.release();
+                if (readable - headerLen >= len) {
+                    out.add(in.retainedSlice(readerIndex + headerLen, len));
+                    in.readerIndex(readerIndex + headerLen + len);
                 }
 
                 return;
@@ -4,15 +4,23 @@ import me.marvin.proxy.Proxy;
 import me.marvin.proxy.networking.pipeline.Pipeline;
 import io.netty.channel.Channel;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * The backend handler handles initial connections from the proxy towards the server.
+ * <br>
+ * If there's no frontend yet (pooled connections), the {@link BackendHandler} has to be added
+ * once the connection gets claimed by a frontend.
  */
 public class BackendChannelInitializer extends DefaultChannelInitializer {
     private final Proxy proxy;
     private final Channel frontend;
 
-    public BackendChannelInitializer(Proxy proxy, Channel frontend) {
+    public BackendChannelInitializer(Proxy proxy) {
+        this(proxy, null);
+    }
+
+    public BackendChannelInitializer(Proxy proxy, @Nullable Channel frontend) {
         this.proxy = proxy;
         this.frontend = frontend;
     }
@@ -20,7 +28,11 @@ public class BackendChannelInitializer extends DefaultChannelInitializer {
     @Override
     protected void initChannel(@NotNull Channel backend) {
         super.initChannel(backend);
-        backend.pipeline()
-            .addLast(Pipeline.BACKEND_HANDLER, new BackendHandler(proxy, frontend));
+        backend.pipeline().addFirst(Pipeline.TRAFFIC_COUNTER, TrafficCounter.BACKEND);
+
+        if (frontend != null) {
+            backend.pipeline()
+                .addLast(Pipeline.BACKEND_HANDLER, new BackendHandler(proxy, frontend));
+        }
     }
 }
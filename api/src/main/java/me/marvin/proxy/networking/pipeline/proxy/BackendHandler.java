@@ -1,14 +1,18 @@
 package me.marvin.proxy.networking.pipeline.proxy;
 
 import me.marvin.proxy.Proxy;
+import me.marvin.proxy.metrics.ConnectionStats;
+import me.marvin.proxy.metrics.ProxyMetrics;
 import me.marvin.proxy.networking.Keys;
 import me.marvin.proxy.networking.ProtocolDirection;
 import me.marvin.proxy.networking.ProtocolPhase;
 import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.LazyPacket;
 import me.marvin.proxy.networking.packet.PacketType;
 import me.marvin.proxy.networking.packet.PacketTypes;
 import me.marvin.proxy.networking.packet.impl.handshake.client.LoginStart;
 import me.marvin.proxy.networking.packet.impl.handshake.client.SetProtocol;
+import me.marvin.proxy.networking.packet.impl.play.client.KeepAliveResponse;
 import me.marvin.proxy.utils.AttributeUtils;
 import me.marvin.proxy.utils.IndexRollback;
 import me.marvin.proxy.utils.Tristate;
@@ -26,10 +30,18 @@ import static me.marvin.proxy.utils.ByteBufUtils.*;
 public class BackendHandler extends ChannelDuplexHandler {
     private final Proxy proxy;
     private final Channel frontend;
+    private final FlushBatcher batcher;
+    private final CompressedFrames frames;
+    private final PassthroughFilter passthrough;
+    private final ConnectionStats stats;
 
     public BackendHandler(Proxy proxy, Channel frontend) {
         this.proxy = proxy;
         this.frontend = frontend;
+        this.batcher = new FlushBatcher(proxy);
+        this.frames = new CompressedFrames();
+        this.passthrough = new PassthroughFilter(proxy, ProtocolDirection.CLIENT, frames);
+        this.stats = frontend.attr(Keys.STATS_KEY).get();
     }
 
     /**
@@ -37,13 +49,43 @@ public class BackendHandler extends ChannelDuplexHandler {
      */
     @Override
     public void channelRead(@NotNull ChannelHandlerContext ctx, @NotNull Object msg) {
-        if (frontend.isActive()) {
-            frontend.writeAndFlush(msg);
-        } else {
-            frontend.write(msg);
+        batcher.write(frontend, msg);
+
+        // Pausing the backend until the client catches up, see FrontendHandler#channelWritabilityChanged
+        if (!frontend.isWritable()) {
+            ctx.channel().config().setAutoRead(false);
         }
     }
 
+    /**
+     * Flushes the packets relayed during the last read loop.
+     */
+    @Override
+    public void channelReadComplete(@NotNull ChannelHandlerContext ctx) {
+        batcher.flush(frontend);
+        ctx.fireChannelReadComplete();
+    }
+
+    /**
+     * Resumes reading from the client once the backend caught up.
+     */
+    @Override
+    public void channelWritabilityChanged(@NotNull ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            frontend.config().setAutoRead(true);
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    /**
+     * Closes the client connection once the relayed packets are written.
+     */
+    @Override
+    public void channelInactive(@NotNull ChannelHandlerContext ctx) throws Exception {
+        batcher.close(frontend);
+        super.channelInactive(ctx);
+    }
+
     /**
      * Handles proxy to server traffic.
      *
@@ -54,12 +96,23 @@ public class BackendHandler extends ChannelDuplexHandler {
         Channel backend = ctx.channel();
 
         if (msg instanceof ByteBuf buf) {
-            try (IndexRollback __ = IndexRollback.readerManual(buf)) {
-                int id = readVarInt(buf);
-                ProtocolPhase phase = ctx.channel().attr(Keys.PHASE_KEY).get();
-                Version version = ctx.channel().attr(Keys.VERSION_KEY).get();
+            ProtocolPhase phase = ctx.channel().attr(Keys.PHASE_KEY).get();
+            Version version = ctx.channel().attr(Keys.VERSION_KEY).get();
+            boolean compressed = ctx.channel().attr(Keys.COMPRESSION_KEY).get() != null;
+
+            if (passthrough.test(buf, phase, version, compressed)) {
+                ProxyMetrics.passthroughPackets(ProtocolDirection.CLIENT).inc();
+                super.write(ctx, msg, promise);
+                return;
+            }
+
+            ByteBuf packet = compressed ? frames.packet(buf) : buf;
+            try (IndexRollback __ = IndexRollback.readerManual(packet)) {
+                int id = readVarInt(packet);
                 PacketType type = PacketTypes.findThrowing(ProtocolDirection.CLIENT, phase, id, version);
-                Tristate cancelPackets = proxy.callListeners(type, buf, frontend, ctx, version);
+                ProxyMetrics.packets(type).inc();
+                LazyPacket lazy = new LazyPacket(type, packet, version);
+                Tristate cancelPackets = proxy.callListeners(lazy, frontend, ctx);
 
                 if (cancelPackets.booleanValue()) {
                     buf.release();
@@ -67,8 +120,7 @@ public class BackendHandler extends ChannelDuplexHandler {
                 }
 
                 if (PacketTypes.Handshake.Client.SET_PROTOCOL == type) {
-                    SetProtocol setProtocol = new SetProtocol();
-                    setProtocol.decode(buf, version);
+                    SetProtocol setProtocol = lazy.packet();
 
                     AttributeUtils.update(Keys.PHASE_KEY, setProtocol.nextPhase(), frontend, backend);
                     AttributeUtils.update(Keys.VERSION_KEY, setProtocol.protocolVersion(), frontend, backend);
@@ -84,14 +136,35 @@ public class BackendHandler extends ChannelDuplexHandler {
                         return;
                     }
                 } else if (PacketTypes.Login.Client.LOGIN_START == type) {
+                    stats.name(lazy.<LoginStart>packet().name());
+
                     if (!proxy.name().isBlank()) {
                         super.write(ctx, new LoginStart(proxy.name()), promise);
                         buf.release();
                         return;
                     }
+                } else if (PacketTypes.Play.Client.KEEP_ALIVE == type) {
+                    stats.keepAliveReceived(lazy.<KeepAliveResponse>packet().id());
+                }
+
+                // Re-encoding the packet modified by the listeners
+                if (lazy.modified()) {
+                    super.write(ctx, lazy.packet(), promise);
+                    buf.release();
+                    return;
+                }
+            } finally {
+                if (packet != buf) {
+                    packet.release();
                 }
             }
         }
         super.write(ctx, msg, promise);
     }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        frames.close();
+        super.handlerRemoved(ctx);
+    }
 }
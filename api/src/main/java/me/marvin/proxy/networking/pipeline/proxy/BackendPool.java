@@ -0,0 +1,273 @@
+package me.marvin.proxy.networking.pipeline.proxy;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.*;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import me.marvin.proxy.Proxy;
+import me.marvin.proxy.backend.Backend;
+import me.marvin.proxy.networking.pipeline.Pipeline;
+import me.marvin.proxy.utils.ServerAddress;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of pre-established backend connections, kept per event loop.
+ * <br>
+ * New frontend connections claim an idle connection of their own event loop, so they don't have to wait for
+ * the backend connection to be established. The pools are refilled in the background.
+ * <br>
+ * Idle connections are closed after {@link Proxy#backendPoolIdleTimeout()} (before the server would time them out),
+ * or if the server closes them or sends anything. The pools are filled with connections towards every
+ * {@link Proxy#backends() backend} in turn, connections to removed backends are discarded when claiming.
+ */
+public final class BackendPool {
+    private static final long RETRY_DELAY = 5000;
+
+    private final Proxy proxy;
+    private final Map<EventLoop, Connections> pools;
+    private volatile boolean running;
+
+    public BackendPool(@NotNull Proxy proxy) {
+        this.proxy = proxy;
+        this.pools = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts filling the pools of the given event loops.
+     *
+     * @param group the event loops
+     */
+    public void start(@NotNull EventLoopGroup group) {
+        running = true;
+
+        for (EventExecutor executor : group) {
+            EventLoop loop = (EventLoop) executor;
+            Connections connections = pools.computeIfAbsent(loop, Connections::new);
+            loop.execute(connections::fill);
+        }
+    }
+
+    /**
+     * Claims an idle connection towards the given backend, and binds it to the given frontend.
+     * <br>
+     * <b>Note: this method must be called on the event loop of the frontend.</b>
+     *
+     * @param frontend the frontend
+     * @param target   the backend
+     * @return an active backend connection, or null if there's no idle connection
+     */
+    @Nullable
+    public Channel claim(@NotNull Channel frontend, @NotNull Backend target) {
+        Connections connections = pools.get(frontend.eventLoop());
+        if (connections == null || !running) {
+            return null;
+        }
+
+        Channel backend = connections.claim(target.address());
+        connections.fill();
+
+        if (backend != null) {
+            backend.pipeline()
+                .remove(Pipeline.POOLED_CONNECTION);
+            backend.pipeline()
+                .addLast(Pipeline.BACKEND_HANDLER, new BackendHandler(proxy, frontend));
+        }
+
+        return backend;
+    }
+
+    /**
+     * Closes every idle connection and stops refilling the pools.
+     */
+    public void close() {
+        running = false;
+
+        for (Connections connections : pools.values()) {
+            connections.loop.execute(connections::clear);
+        }
+    }
+
+    /**
+     * The pool of a single event loop. Only accessed from its event loop.
+     */
+    private final class Connections {
+        private final EventLoop loop;
+        private final ArrayDeque<PooledConnection> idle;
+        private int pending;
+        private int next;
+        private boolean retryScheduled;
+
+        private Connections(EventLoop loop) {
+            this.loop = loop;
+            this.idle = new ArrayDeque<>();
+        }
+
+        private Channel claim(ServerAddress address) {
+            List<Backend> backends = proxy.backends();
+            Iterator<PooledConnection> iterator = idle.iterator();
+
+            while (iterator.hasNext()) {
+                PooledConnection connection = iterator.next();
+
+                if (!connection.channel().isActive() || backends.stream().noneMatch(backend -> backend.address().equals(connection.address()))) {
+                    iterator.remove();
+                    connection.channel().close();
+                } else if (connection.address().equals(address)) {
+                    iterator.remove();
+                    return connection.channel();
+                }
+            }
+
+            return null;
+        }
+
+        private void fill() {
+            while (running && !retryScheduled && idle.size() + pending < proxy.backendPoolSize()) {
+                Backend backend = nextBackend();
+
+                if (backend == null) {
+                    scheduleRetry();
+                    return;
+                }
+
+                connect(backend);
+            }
+        }
+
+        /**
+         * Returns the next available backend in turn.
+         *
+         * @return the backend, or null if every backend is down
+         */
+        private Backend nextBackend() {
+            List<Backend> backends = proxy.backends();
+
+            for (int i = 0; i < backends.size(); i++) {
+                Backend backend = backends.get(Math.floorMod(next++, backends.size()));
+
+                if (backend.available()) {
+                    return backend;
+                }
+            }
+
+            return null;
+        }
+
+        private void clear() {
+            PooledConnection connection;
+
+            while ((connection = idle.poll()) != null) {
+                connection.channel().close();
+            }
+        }
+
+        private void connect(Backend target) {
+            ServerAddress address = target.address();
+            pending++;
+
+            proxy.resolver().remoteAddress(address, loop).addListener((Future<InetSocketAddress> resolved) -> {
+                if (!resolved.isSuccess()) {
+                    pending--;
+                    proxy.healthChecker().failed(target);
+                    proxy.logger().debug("Can't resolve {} for the pool", address, resolved.cause());
+                    scheduleRetry();
+                    return;
+                }
+
+                new Bootstrap()
+                    .group(loop)
+                    .channel(Proxy.SOCKET_CHANNEL_TYPE)
+                    .option(ChannelOption.WRITE_BUFFER_WATER_MARK, proxy.backendWriteBufferWaterMark())
+                    .handler(new BackendChannelInitializer(proxy) {
+                        @Override
+                        protected void initChannel(@NotNull Channel backend) {
+                            super.initChannel(backend);
+                            backend.pipeline()
+                                .addLast(Pipeline.POOLED_CONNECTION, new IdleGuard());
+                        }
+                    })
+                    .remoteAddress(resolved.getNow())
+                    .connect()
+                    .addListener((ChannelFutureListener) f -> {
+                        pending--;
+
+                        if (!f.isSuccess()) {
+                            proxy.healthChecker().failed(target);
+                            proxy.logger().debug("Can't establish pooled connection to {}", address, f.cause());
+                            scheduleRetry();
+                            return;
+                        }
+
+                        proxy.healthChecker().succeeded(target);
+                        Channel backend = f.channel();
+                        if (!running) {
+                            backend.close();
+                            return;
+                        }
+
+                        idle.add(new PooledConnection(backend, address));
+                        loop.schedule(() -> {
+                            // Still idle, the server would time it out soon
+                            if (idle.removeIf(connection -> connection.channel() == backend)) {
+                                backend.close();
+                            }
+                        }, proxy.backendPoolIdleTimeout(), TimeUnit.MILLISECONDS);
+                    });
+            });
+        }
+
+        private void scheduleRetry() {
+            if (retryScheduled) {
+                return;
+            }
+
+            retryScheduled = true;
+            loop.schedule(() -> {
+                retryScheduled = false;
+                fill();
+            }, RETRY_DELAY, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Discards the idle connection if it gets closed, or if the server sends anything.
+         */
+        private final class IdleGuard extends ChannelInboundHandlerAdapter {
+            @Override
+            public void channelRead(@NotNull ChannelHandlerContext ctx, @NotNull Object msg) {
+                ReferenceCountUtil.release(msg);
+                ctx.close();
+            }
+
+            @Override
+            public void channelInactive(@NotNull ChannelHandlerContext ctx) {
+                idle.removeIf(connection -> connection.channel() == ctx.channel());
+                fill();
+                ctx.fireChannelInactive();
+            }
+
+            @Override
+            public void exceptionCaught(@NotNull ChannelHandlerContext ctx, @NotNull Throwable cause) {
+                ctx.close();
+            }
+        }
+    }
+
+    /**
+     * An idle pooled connection.
+     *
+     * @param channel the channel
+     * @param address the address the channel is connected to
+     */
+    private record PooledConnection(Channel channel, ServerAddress address) {
+    }
+}
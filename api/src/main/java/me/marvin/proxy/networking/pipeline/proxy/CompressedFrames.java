@@ -0,0 +1,140 @@
+package me.marvin.proxy.networking.pipeline.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.natives.MinecraftCompressor;
+import me.marvin.proxy.natives.Natives;
+import me.marvin.proxy.utils.IndexRollback;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+import static me.marvin.proxy.utils.ByteBufUtils.MAX_VAR_INT_LENGTH;
+import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
+
+/**
+ * Reads the frames relayed with compression passthrough, which keep their {@code [data length][data]} format.
+ * <br>
+ * The packet id of a compressed frame is peeked by inflating only the beginning of the frame,
+ * the whole frame is only inflated if it has to be inspected.
+ */
+final class CompressedFrames {
+    private static final int PACKET_LIMIT = 1024 * 1024 * 2; // 2 MB
+
+    private MinecraftCompressor compressor;
+    private ByteBuf prefix;
+
+    /**
+     * Returns the id of the packet in the given frame, without modifying its reader index.
+     *
+     * @param frame the frame
+     * @return the packet id
+     * @throws DataFormatException if the frame is badly compressed
+     */
+    int peekId(@NotNull ByteBuf frame) throws DataFormatException {
+        try (IndexRollback __ = IndexRollback.readerManual(frame)) {
+            int dataLength = readVarInt(frame);
+
+            if (dataLength == 0) {
+                return readVarInt(frame);
+            }
+
+            checkLength(dataLength);
+            if (prefix == null) {
+                prefix = Unpooled.directBuffer(MAX_VAR_INT_LENGTH, MAX_VAR_INT_LENGTH);
+            }
+
+            prefix.clear();
+            long start = System.nanoTime();
+            compressor().inflatePrefix(frame, prefix, dataLength, MAX_VAR_INT_LENGTH);
+            ProxyMetrics.INFLATE.observeSince(start);
+            return readVarInt(prefix);
+        }
+    }
+
+    /**
+     * Returns the packet in the given frame, without modifying its reader index.
+     *
+     * @param frame the frame
+     * @return the packet, which has to be released by the caller
+     * @throws DataFormatException if the frame is badly compressed
+     */
+    @NotNull
+    ByteBuf packet(@NotNull ByteBuf frame) throws DataFormatException {
+        try (IndexRollback __ = IndexRollback.readerManual(frame)) {
+            int dataLength = readVarInt(frame);
+
+            if (dataLength == 0) {
+                return frame.retainedSlice();
+            }
+
+            checkLength(dataLength);
+            ByteBuf packet = frame.alloc().directBuffer(dataLength, dataLength);
+
+            try {
+                long start = System.nanoTime();
+                compressor().inflate(frame, packet, dataLength);
+                ProxyMetrics.INFLATE.observeSince(start);
+                return packet;
+            } catch (Exception ex) {
+                packet.release();
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Returns the uncompressed size of the packet in the given frame, without modifying its reader index.
+     *
+     * @param frame the frame
+     * @return the size of the packet, or the size of the frame if its header is malformed
+     */
+    static int packetLength(@NotNull ByteBuf frame) {
+        int readerIndex = frame.readerIndex();
+        int readable = frame.readableBytes();
+        int dataLength = 0;
+
+        for (int i = 0; i < Math.min(readable, MAX_VAR_INT_LENGTH); i++) {
+            byte b = frame.getByte(readerIndex + i);
+            dataLength |= (b & 0x7F) << (i * 7);
+
+            if (b >= 0) {
+                return dataLength == 0 ? readable - i - 1 : dataLength;
+            }
+        }
+
+        return readable;
+    }
+
+    /**
+     * Releases the resources held by this reader.
+     */
+    void close() {
+        if (compressor != null) {
+            compressor.close();
+            compressor = null;
+        }
+
+        if (prefix != null) {
+            prefix.release();
+            prefix = null;
+        }
+    }
+
+    private MinecraftCompressor compressor() {
+        if (compressor == null) {
+            compressor = Natives.compressor().create(Deflater.DEFAULT_COMPRESSION);
+        }
+
+        return compressor;
+    }
+
+    private static void checkLength(int dataLength) {
+        if (dataLength > PACKET_LIMIT) {
+            throw new DecoderException("Badly compressed packet - size of " + dataLength + " is larger than protocol maximum of " + PACKET_LIMIT);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package me.marvin.proxy.networking.pipeline.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import me.marvin.proxy.Proxy;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Coalesces the flushes of relayed packets, so the peer gets flushed once per read loop
+ * instead of once per packet.
+ * <br>
+ * The pending writes are flushed early if either {@link Proxy#flushPacketLimit()} or
+ * {@link Proxy#flushByteLimit()} is reached.
+ */
+final class FlushBatcher {
+    private final Proxy proxy;
+    private int pendingPackets;
+    private int pendingBytes;
+
+    FlushBatcher(Proxy proxy) {
+        this.proxy = proxy;
+    }
+
+    /**
+     * Writes the given message to the target, and flushes it if needed.
+     *
+     * @param target the target channel
+     * @param msg    the message
+     */
+    void write(@NotNull Channel target, @NotNull Object msg) {
+        if (!target.isActive()) {
+            // Queued up until the connection is established
+            target.write(msg);
+            return;
+        }
+
+        if (!proxy.flushBatching()) {
+            target.writeAndFlush(msg);
+            return;
+        }
+
+        if (msg instanceof ByteBuf buf) {
+            pendingBytes += buf.readableBytes();
+        }
+        target.write(msg);
+
+        if (++pendingPackets >= proxy.flushPacketLimit() || pendingBytes >= proxy.flushByteLimit()) {
+            flush(target);
+        }
+    }
+
+    /**
+     * Flushes the target if there are pending writes.
+     *
+     * @param target the target channel
+     */
+    void flush(@NotNull Channel target) {
+        if (pendingPackets != 0) {
+            pendingPackets = 0;
+            pendingBytes = 0;
+            target.flush();
+        }
+    }
+
+    /**
+     * Flushes the pending writes of the target, and closes it afterwards.
+     *
+     * @param target the target channel
+     */
+    void close(@NotNull Channel target) {
+        pendingPackets = 0;
+        pendingBytes = 0;
+
+        ChannelHandlerContext first = target.pipeline().firstContext();
+
+        // Written from the first handler, so the empty buffer bypasses the codecs
+        if (target.isActive() && first != null) {
+            first.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
+        } else {
+            target.close();
+        }
+    }
+}
@@ -1,41 +1,100 @@
 package me.marvin.proxy.networking.pipeline.proxy;
 
 import me.marvin.proxy.Proxy;
+import me.marvin.proxy.metrics.ConnectionStats;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.backend.Backend;
+import me.marvin.proxy.backend.BalancingStrategy;
 import me.marvin.proxy.networking.Keys;
 import me.marvin.proxy.networking.ProtocolDirection;
 import me.marvin.proxy.networking.ProtocolPhase;
 import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.LazyPacket;
 import me.marvin.proxy.networking.packet.PacketType;
 import me.marvin.proxy.networking.packet.PacketTypes;
+import me.marvin.proxy.networking.packet.impl.handshake.client.LoginStart;
+import me.marvin.proxy.networking.packet.impl.handshake.client.SetProtocol;
 import me.marvin.proxy.networking.packet.impl.login.client.EncryptionResponse;
 import me.marvin.proxy.networking.packet.impl.login.server.EncryptionRequest;
+import me.marvin.proxy.networking.packet.impl.login.server.SetCompression;
+import me.marvin.proxy.networking.packet.impl.play.server.KeepAlive;
 import me.marvin.proxy.networking.pipeline.Pipeline;
 import me.marvin.proxy.networking.pipeline.game.CipherDecoder;
 import me.marvin.proxy.networking.pipeline.game.CipherEncoder;
 import me.marvin.proxy.networking.pipeline.game.PacketCompressor;
 import me.marvin.proxy.networking.pipeline.game.PacketDecompressor;
 import me.marvin.proxy.utils.*;
+import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.crypto.SecretKey;
 import java.math.BigInteger;
+import java.net.InetSocketAddress;
 import java.security.PublicKey;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static me.marvin.proxy.utils.ByteBufUtils.*;
 
 /**
  * The frontend handler.
+ * <br>
+ * The backend connection is established by {@link #connect(ChannelHandlerContext, Backend)}. If the
+ * {@link BalancingStrategy balancing strategy} needs the name of the player, the packets are held back until the
+ * client sends it, then the backend gets selected and the held back packets are relayed.
+ * <br>
+ * If the {@link Proxy#statusCacheTtl() status cache} is enabled, the packets are held back until the handshake,
+ * and status requests are answered by a {@link StatusResponder} if the response of the backend is cached.
+ * <br>
+ * The held back packets are limited by {@link Proxy#pendingByteLimit()}, and the backend connection has to be
+ * established within {@link Proxy#pendingTimeout()}, otherwise the client is disconnected.
  */
 public class FrontendHandler extends ChannelDuplexHandler {
     private final Proxy proxy;
-    private final Channel backend;
+    private final FlushBatcher batcher;
+    private final CompressedFrames frames;
+    private final PassthroughFilter passthrough;
+    private final PendingPackets pending;
+    private ScheduledFuture<?> pendingTimeout;
+    private Channel backend;
+    private boolean resolving;
+    private boolean connected;
+    private Version loginVersion;
+    private long acceptedAt;
+    private ConnectionStats stats;
 
-    public FrontendHandler(Proxy proxy, Channel backend) {
+    public FrontendHandler(Proxy proxy) {
         this.proxy = proxy;
-        this.backend = backend;
+        this.batcher = new FlushBatcher(proxy);
+        this.frames = new CompressedFrames();
+        this.passthrough = new PassthroughFilter(proxy, ProtocolDirection.SERVER, frames);
+        this.pending = new PendingPackets(proxy.pendingByteLimit());
+    }
+
+    /**
+     * Connects right away, unless the handshake has to be peeked first.
+     */
+    @Override
+    public void handlerAdded(@NotNull ChannelHandlerContext ctx) {
+        acceptedAt = System.nanoTime();
+        stats = new ConnectionStats(ctx.channel());
+        ctx.channel().attr(Keys.STATS_KEY).set(stats);
+        pendingTimeout = ctx.executor().schedule(() -> {
+            proxy.logger().warn("Backend connection of {} timed out", ctx.channel().remoteAddress());
+            ctx.close();
+        }, proxy.pendingTimeout(), TimeUnit.MILLISECONDS);
+
+        if (!proxy.balancingStrategy().needsUsername() && proxy.statusCacheTtl() == 0) {
+            connect(ctx, proxy.selectBackend(ctx.channel(), null));
+        }
     }
 
     /**
@@ -43,11 +102,246 @@ public class FrontendHandler extends ChannelDuplexHandler {
      */
     @Override
     public void channelRead(@NotNull ChannelHandlerContext ctx, @NotNull Object msg) {
+        if (msg instanceof ByteBuf buf) {
+            stats.packetIn(ctx.channel().attr(Keys.COMPRESSION_KEY).get() != null ? CompressedFrames.packetLength(buf) : buf.readableBytes());
+        }
+
+        if (!connected) {
+            if (!pending.add(msg)) {
+                proxy.logger().warn("Too many packets received from {} before connecting to the backend ({} bytes)", ctx.channel().remoteAddress(), pending.bytes());
+                ctx.close();
+                return;
+            }
+
+            if (backend == null && !resolving) {
+                peekHandshake(ctx, msg);
+            }
+            return;
+        }
+
+        batcher.write(backend, msg);
+
+        // Pausing the client until the backend catches up, see BackendHandler#channelWritabilityChanged
+        if (!backend.isWritable()) {
+            ctx.channel().config().setAutoRead(false);
+        }
+    }
+
+    /**
+     * Flushes the packets relayed during the last read loop.
+     */
+    @Override
+    public void channelReadComplete(@NotNull ChannelHandlerContext ctx) {
+        if (connected) {
+            batcher.flush(backend);
+        }
+        ctx.fireChannelReadComplete();
+    }
+
+    /**
+     * Resumes reading from the backend once the client caught up.
+     */
+    @Override
+    public void channelWritabilityChanged(@NotNull ChannelHandlerContext ctx) throws Exception {
+        if (backend != null && ctx.channel().isWritable()) {
+            backend.config().setAutoRead(true);
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    /**
+     * Closes the backend connection once the relayed packets are written.
+     */
+    @Override
+    public void channelInactive(@NotNull ChannelHandlerContext ctx) throws Exception {
+        if (backend != null) {
+            batcher.close(backend);
+        }
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * Connects after the client sent its handshake, or its name if it's needed, see {@link BalancingStrategy#needsUsername()}.
+     * <br>
+     * The handshake and the login start packets are peeked without modifying the held back packets. If the client
+     * requests the status, it's answered from the cache if possible. If the client sends unexpected packets,
+     * the backend is selected without a name.
+     *
+     * @param ctx the context of this handler
+     * @param msg the received packet
+     */
+    private void peekHandshake(ChannelHandlerContext ctx, Object msg) {
+        if (!(msg instanceof ByteBuf buf)) {
+            return;
+        }
+
+        ByteBuf packet = buf.duplicate();
+        String username = null;
+
+        try {
+            int id = readVarInt(packet);
+
+            if (loginVersion == null) {
+                PacketType type = PacketTypes.findThrowing(ProtocolDirection.CLIENT, ProtocolPhase.HANDSHAKE, id, Version.V1_8);
+
+                if (type == PacketTypes.Handshake.Client.SET_PROTOCOL) {
+                    SetProtocol setProtocol = new SetProtocol();
+                    setProtocol.decode(packet, Version.V1_8);
+
+                    // Waiting for the login start packet
+                    if (setProtocol.nextPhase() == ProtocolPhase.LOGIN && proxy.balancingStrategy().needsUsername()) {
+                        loginVersion = setProtocol.protocolVersion();
+                        return;
+                    }
+
+                    if (setProtocol.nextPhase() == ProtocolPhase.STATUS && proxy.statusCacheTtl() > 0) {
+                        Backend target = proxy.selectBackend(ctx.channel(), null);
+
+                        if (target == null || !respondStatus(ctx, target, setProtocol.protocolVersion())) {
+                            connect(ctx, target);
+                        }
+                        return;
+                    }
+                }
+            } else {
+                PacketType type = PacketTypes.findThrowing(ProtocolDirection.CLIENT, ProtocolPhase.LOGIN, id, loginVersion);
+
+                if (type == PacketTypes.Login.Client.LOGIN_START) {
+                    LoginStart loginStart = new LoginStart();
+                    loginStart.decode(packet, loginVersion);
+                    username = loginStart.name();
+                }
+            }
+        } catch (Exception ex) {
+            proxy.logger().debug("Can't peek the handshake of {}", ctx.channel().remoteAddress(), ex);
+        }
+
+        connect(ctx, proxy.selectBackend(ctx.channel(), username));
+    }
+
+    /**
+     * Answers the status request from the cache, by replacing this handler with a {@link StatusResponder}.
+     *
+     * @param ctx     the context of this handler
+     * @param target  the backend
+     * @param version the version of the client
+     * @return true if the response of the backend is cached, false otherwise
+     */
+    private boolean respondStatus(ChannelHandlerContext ctx, Backend target, Version version) {
+        Channel frontend = ctx.channel();
+        String response = proxy.statusCache().get(target, version, frontend.eventLoop());
+
+        if (response == null) {
+            return false;
+        }
+
+        frontend.attr(Keys.VERSION_KEY).set(version);
+        frontend.attr(Keys.PHASE_KEY).set(ProtocolPhase.STATUS);
+
+        // The handshake is not relayed anymore
+        ReferenceCountUtil.release(pending.poll());
+        ctx.pipeline().replace(this, Pipeline.STATUS_RESPONDER, new StatusResponder(response));
+        return true;
+    }
+
+    /**
+     * Connects to the given backend. The packets held back until now are relayed.
+     * <br>
+     * If the address of the backend isn't resolved in the background, it's resolved before connecting.
+     *
+     * @param ctx    the context of this handler
+     * @param target the backend, or null if none of the backends can be used
+     */
+    private void connect(ChannelHandlerContext ctx, @Nullable Backend target) {
+        Channel frontend = ctx.channel();
+
+        // Every backend is down
+        if (target == null) {
+            proxy.logger().warn("No backend is available for {}", frontend.remoteAddress());
+            frontend.close();
+            return;
+        }
+
+        Channel backend = proxy.backendPool().claim(frontend, target);
+
+        if (backend != null) {
+            track(target, backend);
+            return;
+        }
+
+        resolving = true;
+        proxy.resolver().remoteAddress(target.address(), frontend.eventLoop()).addListener((Future<InetSocketAddress> resolved) -> {
+            resolving = false;
+
+            if (!resolved.isSuccess()) {
+                proxy.healthChecker().failed(target);
+                proxy.logger().warn("Can't resolve {} for {}", target.address(), frontend.remoteAddress(), resolved.cause());
+                frontend.close();
+                return;
+            }
+
+            // Disconnected while resolving
+            if (!frontend.isActive()) {
+                return;
+            }
+
+            Bootstrap bootstrap = new Bootstrap()
+                .group(frontend.eventLoop())
+                .channel(frontend.getClass())
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, proxy.backendWriteBufferWaterMark())
+                .handler(new BackendChannelInitializer(proxy, frontend))
+                .remoteAddress(resolved.getNow());
+
+            track(target, bootstrap.connect()
+                .addListener((ChannelFutureListener) f -> {
+                    if (f.isSuccess()) {
+                        proxy.healthChecker().succeeded(target);
+                        connected(f.channel());
+                    } else {
+                        proxy.healthChecker().failed(target);
+                        proxy.logger().warn("Can't connect to {} for {}", target.address(), frontend.remoteAddress(), f.cause());
+                        f.channel().close();
+                        // Closing parent
+                        frontend.close();
+                    }
+                })
+                .channel());
+        });
+    }
+
+    /**
+     * Uses the given connection as the backend connection.
+     *
+     * @param target  the backend
+     * @param backend the backend connection
+     */
+    private void track(Backend target, Channel backend) {
+        target.track(backend);
+        this.backend = backend;
+
         if (backend.isActive()) {
-            backend.writeAndFlush(msg);
-        } else {
-            backend.write(msg);
+            connected(backend);
+        }
+    }
+
+    /**
+     * Relays the held back packets once the backend connection is established.
+     *
+     * @param backend the backend connection
+     */
+    private void connected(Channel backend) {
+        if (connected) {
+            return;
         }
+
+        connected = true;
+        pendingTimeout.cancel(false);
+
+        Object msg;
+        while ((msg = pending.poll()) != null) {
+            batcher.write(backend, msg);
+        }
+        batcher.flush(backend);
     }
 
     /**
@@ -59,12 +353,24 @@ public class FrontendHandler extends ChannelDuplexHandler {
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
         Channel frontend = ctx.channel();
         if (msg instanceof ByteBuf buf) {
-            try (IndexRollback __ = IndexRollback.readerManual(buf)) {
-                int id = readVarInt(buf);
-                ProtocolPhase phase = ctx.channel().attr(Keys.PHASE_KEY).get();
-                Version version = ctx.channel().attr(Keys.VERSION_KEY).get();
+            ProtocolPhase phase = ctx.channel().attr(Keys.PHASE_KEY).get();
+            Version version = ctx.channel().attr(Keys.VERSION_KEY).get();
+            boolean compressed = ctx.channel().attr(Keys.COMPRESSION_KEY).get() != null;
+
+            if (passthrough.test(buf, phase, version, compressed)) {
+                ProxyMetrics.passthroughPackets(ProtocolDirection.SERVER).inc();
+                stats.packetOut(compressed ? CompressedFrames.packetLength(buf) : buf.readableBytes());
+                super.write(ctx, msg, promise);
+                return;
+            }
+
+            ByteBuf packet = compressed ? frames.packet(buf) : buf;
+            try (IndexRollback __ = IndexRollback.readerManual(packet)) {
+                int id = readVarInt(packet);
                 PacketType type = PacketTypes.findThrowing(ProtocolDirection.SERVER, phase, id, version);
-                Tristate cancelPackets = proxy.callListeners(type, buf, backend, ctx, version);
+                ProxyMetrics.packets(type).inc();
+                LazyPacket lazy = new LazyPacket(type, packet, version);
+                Tristate cancelPackets = proxy.callListeners(lazy, backend, ctx);
 
                 if (cancelPackets.booleanValue()) {
                     buf.release();
@@ -74,15 +380,18 @@ public class FrontendHandler extends ChannelDuplexHandler {
                 if (PacketTypes.Login.Server.ENCRYPTION_REQUEST == type) {
                     proxy.logger().info("Enabling encryption for {}", frontend.remoteAddress());
 
-                    EncryptionRequest original = new EncryptionRequest();
-                    original.decode(buf, version);
+                    EncryptionRequest original = lazy.packet();
 
                     SecretKey secretKey = MinecraftEncryption.generateSecretKey();
                     PublicKey publicKey = original.publicKey();
 
                     String serverId = new BigInteger(MinecraftEncryption.hashServerId(original.hashedServerId(), publicKey, secretKey)).toString(16);
+                    buf.release();
+
+                    CompletableFuture<Void> join;
+                    long joinStart = System.nanoTime();
                     try {
-                        proxy.sessionService().joinServer(
+                        join = proxy.sessionService().joinServerAsync(
                             GameProfile.gameProfile(
                                 new UUID(
                                     Long.parseUnsignedLong(proxy.uuid().substring(0, 16), 16),
@@ -94,38 +403,118 @@ public class FrontendHandler extends ChannelDuplexHandler {
                             serverId
                         );
                     } catch (Exception ex) {
-                        proxy.logger().error("An error happened during server join", ex);
-                        backend.close();
-                        frontend.close();
-                        return;
+                        join = CompletableFuture.failedFuture(ex);
                     }
 
-                    backend.writeAndFlush(new EncryptionResponse(
-                        MinecraftEncryption.encryptData(publicKey, secretKey.getEncoded()),
-                        MinecraftEncryption.encryptData(publicKey, original.verifyToken())
-                    )).addListener((ChannelFutureListener) f -> f.channel().pipeline()
-                        .addBefore(Pipeline.FRAME_DECODER, Pipeline.DECRYPTER, new CipherDecoder(secretKey))
-                        .addBefore(Pipeline.FRAME_ENCODER, Pipeline.ENCRYPTER, new CipherEncoder(secretKey))
-                    );
+                    // Resuming the login on the event loop, once the session service answered
+                    join.whenComplete((result, ex) -> frontend.eventLoop().execute(() -> {
+                        ProxyMetrics.SESSION_JOIN.labels(ex == null ? "success" : "failure").observeSince(joinStart);
 
-                    buf.release();
+                        if (ex != null) {
+                            proxy.logger().error("An error happened during server join", ex instanceof CompletionException ? ex.getCause() : ex);
+                            backend.close();
+                            frontend.close();
+                            return;
+                        }
+
+                        if (!backend.isActive()) {
+                            return;
+                        }
+
+                        backend.writeAndFlush(new EncryptionResponse(
+                            MinecraftEncryption.encryptData(publicKey, secretKey.getEncoded()),
+                            MinecraftEncryption.encryptData(publicKey, original.verifyToken())
+                        )).addListener((ChannelFutureListener) f -> f.channel().pipeline()
+                            .addBefore(Pipeline.FRAME_DECODER, Pipeline.DECRYPTER, new CipherDecoder(secretKey))
+                            .addBefore(Pipeline.FRAME_ENCODER, Pipeline.ENCRYPTER, new CipherEncoder(secretKey))
+                        );
+                    }));
                     return;
                 } else if (PacketTypes.Login.Server.SET_COMPRESSION == type) {
-                    int threshold = readVarInt(buf);
-                    proxy.logger().info("Enabling compression for {} (compression after: {})", frontend.remoteAddress(), threshold);
+                    int threshold = lazy.<SetCompression>packet().threshold();
 
-                    backend.pipeline()
-                        .addAfter(Pipeline.FRAME_DECODER, Pipeline.DECOMPRESSOR, new PacketDecompressor(threshold))
-                        .addAfter(Pipeline.FRAME_ENCODER, Pipeline.COMPRESSOR, new PacketCompressor(threshold));
+                    if (proxy.compressionPassthrough()) {
+                        proxy.logger().info("Relaying compressed packets for {} (compression after: {})", frontend.remoteAddress(), threshold);
 
-                    buf.release();
-                    return;
+                        // Re-encoding before updating the attribute, so the client receives the packet uncompressed
+                        if (lazy.modified()) {
+                            super.write(ctx, lazy.packet(), promise);
+                            buf.release();
+                            AttributeUtils.update(Keys.COMPRESSION_KEY, threshold, frontend, backend);
+                            return;
+                        }
+
+                        // Forwarding the packet to the client, every following packet is compressed on both sides
+                        AttributeUtils.update(Keys.COMPRESSION_KEY, threshold, frontend, backend);
+                    } else {
+                        proxy.logger().info("Enabling compression for {} (compression after: {})", frontend.remoteAddress(), threshold);
+
+                        backend.pipeline()
+                            .addAfter(Pipeline.FRAME_DECODER, Pipeline.DECOMPRESSOR, new PacketDecompressor(threshold))
+                            .addAfter(Pipeline.FRAME_ENCODER, Pipeline.COMPRESSOR, new PacketCompressor(threshold));
+
+                        buf.release();
+                        return;
+                    }
+                } else if (PacketTypes.Play.Server.KEEP_ALIVE == type) {
+                    stats.keepAliveSent(lazy.<KeepAlive>packet().id());
                 } else if (PacketTypes.Login.Server.LOGIN_SUCCESS == type) {
+                    ProxyMetrics.LOGIN_TIME.observeSince(acceptedAt);
+                    enableFrontendCompression(ctx, version);
                     proxy.logger().info("Switching protocol stage to {} for {}", ProtocolPhase.PLAY, frontend.remoteAddress());
                     AttributeUtils.update(Keys.PHASE_KEY, ProtocolPhase.PLAY, frontend, backend);
                 }
+
+                // Re-encoding the packet modified by the listeners
+                if (lazy.modified()) {
+                    super.write(ctx, lazy.packet(), promise);
+                    buf.release();
+                    return;
+                }
+            } finally {
+                if (packet != buf) {
+                    packet.release();
+                }
             }
-            super.write(ctx, msg, promise);
+
+            // Re-encoded packets are counted by the PacketSerializer
+            stats.packetOut(compressed ? CompressedFrames.packetLength(buf) : buf.readableBytes());
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    /**
+     * Enables the compression configured by the proxy between the client and the proxy, right before the login finishes.
+     *
+     * @param ctx     the context of this handler
+     * @param version the version of the client
+     */
+    private void enableFrontendCompression(ChannelHandlerContext ctx, Version version) {
+        Channel frontend = ctx.channel();
+        int threshold = proxy.frontendCompressionThreshold();
+
+        // Compression is already negotiated, or not supported by the client
+        if (threshold < 0 || version.isOlderThan(Version.V1_8) || frontend.attr(Keys.COMPRESSION_KEY).get() != null) {
+            return;
         }
+
+        proxy.logger().info("Enabling client compression for {} (compression after: {})", frontend.remoteAddress(), threshold);
+
+        // Written before adding the compressor, so the client receives it uncompressed
+        ctx.write(new SetCompression(threshold));
+        frontend.pipeline()
+            .addAfter(Pipeline.FRAME_DECODER, Pipeline.DECOMPRESSOR, new PacketDecompressor(threshold))
+            .addAfter(Pipeline.FRAME_ENCODER, Pipeline.COMPRESSOR, new PacketCompressor(threshold, proxy.frontendCompressionLevel()));
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        pending.release();
+        if (pendingTimeout != null) {
+            pendingTimeout.cancel(false);
+        }
+
+        frames.close();
+        super.handlerRemoved(ctx);
     }
 }
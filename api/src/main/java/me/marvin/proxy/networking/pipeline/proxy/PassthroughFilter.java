@@ -0,0 +1,83 @@
+package me.marvin.proxy.networking.pipeline.proxy;
+
+import io.netty.buffer.ByteBuf;
+import me.marvin.proxy.Proxy;
+import me.marvin.proxy.networking.PacketListener;
+import me.marvin.proxy.networking.ProtocolDirection;
+import me.marvin.proxy.networking.ProtocolPhase;
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.zip.DataFormatException;
+
+import static me.marvin.proxy.utils.ByteBufUtils.peekVarInt;
+
+/**
+ * Decides which frames have to be inspected by the proxy, every other frame is relayed as-is.
+ * <br>
+ * Frames in the {@link ProtocolPhase#PLAY play phase} are only inspected if any of the registered
+ * listeners is {@link PacketListener#interested(PacketType) interested} in them.
+ * If {@link Proxy#latencyTracking() latency tracking} is enabled, the keep alives are inspected too.
+ * The interests are cached per (phase, version) and recomputed when the listeners change.
+ */
+final class PassthroughFilter {
+    private final Proxy proxy;
+    private final ProtocolDirection direction;
+    private final CompressedFrames frames;
+    private ProtocolPhase phase;
+    private Version version;
+    private int generation;
+    private boolean latencyTracking;
+    private BitSet interests;
+
+    PassthroughFilter(Proxy proxy, ProtocolDirection direction, CompressedFrames frames) {
+        this.proxy = proxy;
+        this.direction = direction;
+        this.frames = frames;
+    }
+
+    /**
+     * Returns if the given frame can be relayed without being inspected.
+     *
+     * @param buf     the frame
+     * @param phase   the current phase
+     * @param version the current version
+     * @param compressed whether the frame is relayed with compression passthrough
+     * @return true if nobody is interested in the frame, false otherwise
+     * @throws DataFormatException if the frame is badly compressed
+     */
+    boolean test(@NotNull ByteBuf buf, @NotNull ProtocolPhase phase, @NotNull Version version, boolean compressed) throws DataFormatException {
+        // The proxy itself handles packets in every other phase
+        if (phase != ProtocolPhase.PLAY) {
+            return false;
+        }
+
+        int generation = proxy.listenerGeneration();
+        boolean latencyTracking = proxy.latencyTracking();
+        if (interests == null || this.phase != phase || !this.version.equals(version) || this.generation != generation || this.latencyTracking != latencyTracking) {
+            this.phase = phase;
+            this.version = version;
+            this.generation = generation;
+            this.latencyTracking = latencyTracking;
+            this.interests = proxy.listenerInterests(direction, phase, version);
+
+            if (latencyTracking) {
+                PacketType keepAlive = direction == ProtocolDirection.SERVER ? PacketTypes.Play.Server.KEEP_ALIVE : PacketTypes.Play.Client.KEEP_ALIVE;
+                int id = keepAlive.id(version);
+
+                if (id >= 0) {
+                    interests.set(id);
+                }
+            }
+        }
+
+        if (interests.isEmpty()) {
+            return true;
+        }
+
+        return !interests.get(compressed ? frames.peekId(buf) : peekVarInt(buf));
+    }
+}
@@ -0,0 +1,79 @@
+package me.marvin.proxy.networking.pipeline.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+
+/**
+ * Holds back the packets of a client until its backend connection is established.
+ * <br>
+ * The amount of held back bytes is limited, so a stalled backend connection can't be used to exhaust the memory.
+ */
+final class PendingPackets {
+    private final ArrayDeque<Object> queue;
+    private final int byteLimit;
+    private int bytes;
+
+    PendingPackets(int byteLimit) {
+        this.queue = new ArrayDeque<>();
+        this.byteLimit = byteLimit;
+    }
+
+    /**
+     * Holds back the given packet. If the limit is exceeded, the packet is released instead.
+     *
+     * @param msg the packet
+     * @return true if the packet is held back, false if the limit is exceeded
+     */
+    boolean add(@NotNull Object msg) {
+        int size = msg instanceof ByteBuf buf ? buf.readableBytes() : 0;
+
+        if (bytes + size > byteLimit) {
+            ReferenceCountUtil.release(msg);
+            return false;
+        }
+
+        bytes += size;
+        queue.add(msg);
+        return true;
+    }
+
+    /**
+     * Removes the oldest held back packet.
+     *
+     * @return the packet, or null if there's none
+     */
+    @Nullable
+    Object poll() {
+        Object msg = queue.poll();
+
+        if (msg instanceof ByteBuf buf) {
+            bytes -= buf.readableBytes();
+        }
+
+        return msg;
+    }
+
+    /**
+     * Returns the amount of held back bytes.
+     *
+     * @return the amount of bytes
+     */
+    int bytes() {
+        return bytes;
+    }
+
+    /**
+     * Releases every held back packet.
+     */
+    void release() {
+        Object msg;
+        while ((msg = queue.poll()) != null) {
+            ReferenceCountUtil.release(msg);
+        }
+        bytes = 0;
+    }
+}
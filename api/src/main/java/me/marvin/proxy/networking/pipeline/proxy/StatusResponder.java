@@ -0,0 +1,59 @@
+package me.marvin.proxy.networking.pipeline.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import me.marvin.proxy.networking.Keys;
+import me.marvin.proxy.networking.ProtocolDirection;
+import me.marvin.proxy.networking.ProtocolPhase;
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import me.marvin.proxy.networking.packet.impl.status.client.StatusPing;
+import me.marvin.proxy.networking.packet.impl.status.server.ServerInfo;
+import me.marvin.proxy.networking.packet.impl.status.server.StatusPong;
+import org.jetbrains.annotations.NotNull;
+
+import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
+
+/**
+ * Answers a status request with a cached response, without connecting to the backend.
+ * <br>
+ * Replaces the {@link FrontendHandler} once the client switched to the {@link ProtocolPhase#STATUS status phase}.
+ */
+final class StatusResponder extends ChannelInboundHandlerAdapter {
+    private final String response;
+
+    StatusResponder(String response) {
+        this.response = response;
+    }
+
+    @Override
+    public void channelRead(@NotNull ChannelHandlerContext ctx, @NotNull Object msg) {
+        ByteBuf buf = (ByteBuf) msg;
+
+        try {
+            Version version = ctx.channel().attr(Keys.VERSION_KEY).get();
+            PacketType type = PacketTypes.findThrowing(ProtocolDirection.CLIENT, ProtocolPhase.STATUS, readVarInt(buf), version);
+
+            if (PacketTypes.Status.Client.START == type) {
+                ctx.writeAndFlush(new ServerInfo(response));
+            } else if (PacketTypes.Status.Client.PING == type) {
+                StatusPing ping = new StatusPing();
+                ping.decode(buf, version);
+                ctx.writeAndFlush(new StatusPong(ping.payload()))
+                    .addListener(ChannelFutureListener.CLOSE);
+            } else {
+                ctx.close();
+            }
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Override
+    public void exceptionCaught(@NotNull ChannelHandlerContext ctx, @NotNull Throwable cause) {
+        ctx.close();
+    }
+}
@@ -0,0 +1,72 @@
+package me.marvin.proxy.networking.pipeline.proxy;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import me.marvin.proxy.metrics.ConnectionStats;
+import me.marvin.proxy.metrics.Counter;
+import me.marvin.proxy.metrics.Gauge;
+import me.marvin.proxy.metrics.ProxyMetrics;
+import me.marvin.proxy.networking.Keys;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Counts the open connections and the bytes transferred on the wire of one side of the proxy.
+ * On the client side, the bytes are counted in the {@link ConnectionStats statistics} of the connection too.
+ * <br>
+ * This handler is the first in the pipeline, so it sees the bytes as they are sent and received,
+ * compressed and encrypted.
+ */
+@ChannelHandler.Sharable
+final class TrafficCounter extends ChannelDuplexHandler {
+    static final TrafficCounter FRONTEND = new TrafficCounter("frontend", ProxyMetrics.FRONTEND_CHANNELS);
+    static final TrafficCounter BACKEND = new TrafficCounter("backend", ProxyMetrics.BACKEND_CHANNELS);
+
+    private final Gauge.Child channels;
+    private final Counter.Child in;
+    private final Counter.Child out;
+
+    private TrafficCounter(String side, Gauge.Child channels) {
+        this.channels = channels;
+        this.in = ProxyMetrics.BYTES.labels(side, "in");
+        this.out = ProxyMetrics.BYTES.labels(side, "out");
+    }
+
+    @Override
+    public void handlerAdded(@NotNull ChannelHandlerContext ctx) {
+        channels.inc();
+        ctx.channel().closeFuture().addListener(__ -> channels.dec());
+    }
+
+    @Override
+    public void channelRead(@NotNull ChannelHandlerContext ctx, @NotNull Object msg) {
+        if (msg instanceof ByteBuf buf) {
+            in.add(buf.readableBytes());
+
+            if (this == FRONTEND) {
+                ConnectionStats stats = ctx.channel().attr(Keys.STATS_KEY).get();
+                if (stats != null) {
+                    stats.bytesIn(buf.readableBytes());
+                }
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(@NotNull ChannelHandlerContext ctx, @NotNull Object msg, @NotNull ChannelPromise promise) {
+        if (msg instanceof ByteBuf buf) {
+            out.add(buf.readableBytes());
+
+            if (this == FRONTEND) {
+                ConnectionStats stats = ctx.channel().attr(Keys.STATS_KEY).get();
+                if (stats != null) {
+                    stats.bytesOut(buf.readableBytes());
+                }
+            }
+        }
+        ctx.write(msg, promise);
+    }
+}
@@ -397,6 +397,29 @@ public enum ByteBufUtils {;
         return number;
     }
 
+    /**
+     * Reads a variable integer from the buffer without modifying its reader index.
+     *
+     * @return the variable integer
+     */
+    public static int peekVarInt(@NotNull ByteBuf buf) {
+        int index = buf.readerIndex();
+        int number = 0;
+        int chunk = 0;
+
+        byte currentByte;
+
+        do {
+            currentByte = buf.getByte(index++);
+            number |= (currentByte & 127) << chunk++ * 7;
+            if (chunk > 5) {
+                throw VARINT_TOO_BIG;
+            }
+        } while ((currentByte & 128) == 128);
+
+        return number;
+    }
+
     /**
      * Writes the given variable long to the buffer.
      *
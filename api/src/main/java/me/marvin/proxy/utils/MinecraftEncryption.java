@@ -1,6 +1,9 @@
 package me.marvin.proxy.utils;
 
+import io.netty.buffer.ByteBuf;
+
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
@@ -97,6 +100,33 @@ public interface MinecraftEncryption {
         }
     }
 
+    /**
+     * Encrypts / decrypts the readable bytes of the given buffer in place using the given stream cipher.
+     * Heap buffers are processed through their backing array, direct buffers through their
+     * {@link ByteBuf#nioBuffers(int, int) nio views}, so the content is never copied into a new buffer.
+     *
+     * @param cipher the cipher
+     * @param buf    the buffer
+     * @throws ShortBufferException if the cipher's output size differs from its input size
+     */
+    static void cipherInPlace(Cipher cipher, ByteBuf buf) throws ShortBufferException {
+        int index = buf.readerIndex();
+        int len = buf.readableBytes();
+
+        if (buf.hasArray()) {
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset() + index;
+            cipher.update(array, offset, len, array, offset);
+        } else if (buf.nioBufferCount() == 1) {
+            ByteBuffer view = buf.nioBuffer(index, len);
+            cipher.update(view, view.duplicate());
+        } else {
+            for (ByteBuffer view : buf.nioBuffers(index, len)) {
+                cipher.update(view, view.duplicate());
+            }
+        }
+    }
+
     /**
      * Computes a message digest based on the given data with the given algorithm.
      *
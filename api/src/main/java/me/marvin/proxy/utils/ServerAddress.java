@@ -17,21 +17,16 @@ import java.util.Hashtable;
 public record ServerAddress(String host, int port) {
     /**
      * Resolves the given address using SRV records.
+     * <br>
+     * <b>Note: this method blocks, {@link ServerResolver} resolves addresses asynchronously.</b>
      *
      * @param address the address
      * @return the resolved address as a tuple
      */
     public static ServerAddress parse(@NotNull String address) {
-        String[] parts = address.split(":");
-
-        if (parts.length > 2) {
-            parts = new String[]{address};
-        }
-
-        String host = parts[0];
-        int port = port(parts.length > 1 ? parts[1] : null);
+        ServerAddress parsed = unresolved(address);
 
-        if (port == 25565) {
+        if (parsed.port() == 25565) {
             try {
                 Class.forName("com.sun.jndi.dns.DnsContextFactory");
 
@@ -50,7 +45,23 @@ public record ServerAddress(String host, int port) {
             }
         }
 
-        return new ServerAddress(host, port);
+        return parsed;
+    }
+
+    /**
+     * Parses the given address without resolving it.
+     *
+     * @param address the address
+     * @return the parsed address
+     */
+    public static ServerAddress unresolved(@NotNull String address) {
+        String[] parts = address.split(":");
+
+        if (parts.length > 2) {
+            parts = new String[]{address};
+        }
+
+        return new ServerAddress(parts[0], port(parts.length > 1 ? parts[1] : null));
     }
 
     /**
@@ -80,6 +91,15 @@ public record ServerAddress(String host, int port) {
         return new InetSocketAddress(host, port);
     }
 
+    /**
+     * Wraps this server address into an unresolved {@link InetSocketAddress socket address}.
+     *
+     * @return the unresolved socket address
+     */
+    public InetSocketAddress toUnresolvedInetAddress() {
+        return InetSocketAddress.createUnresolved(host, port);
+    }
+
     @Override
     public String toString() {
         return host + (port != 25565 ? (":" + port) : "");
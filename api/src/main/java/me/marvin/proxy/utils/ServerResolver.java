@@ -0,0 +1,293 @@
+package me.marvin.proxy.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.EventLoop;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.handler.codec.dns.*;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.dns.*;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves {@link ServerAddress server addresses} asynchronously, using SRV and A/AAAA records.
+ * <br>
+ * The records are cached according to their TTL. The {@link #targets(Collection) target} addresses are
+ * resolved in the background and refreshed periodically, so connecting to them doesn't need any name resolution.
+ * <br>
+ * <b>Note: the resolver is bound to a single event loop, the caches are only accessed from there.</b>
+ */
+public final class ServerResolver {
+    private static final int SRV_PORT = 25565;
+    private static final long MIN_REFRESH = TimeUnit.SECONDS.toNanos(5);
+    private static final long MAX_REFRESH = TimeUnit.MINUTES.toNanos(5);
+    private static final long DEFAULT_REFRESH = TimeUnit.SECONDS.toNanos(30);
+
+    private final EventLoop loop;
+    private final DnsNameResolver resolver;
+    private final DnsAddressResolverGroup resolverGroup;
+    private final Map<String, SrvRecord> srvCache;
+    private final Map<ServerAddress, Target> targets;
+
+    public ServerResolver(@NotNull EventLoop loop, @NotNull Class<? extends DatagramChannel> channelType) {
+        this(loop, channelType, DnsServerAddressStreamProviders.platformDefault());
+    }
+
+    public ServerResolver(@NotNull EventLoop loop, @NotNull Class<? extends DatagramChannel> channelType, @NotNull DnsServerAddressStreamProvider nameServers) {
+        DnsNameResolverBuilder builder = new DnsNameResolverBuilder(loop)
+            .channelType(channelType)
+            .resolveCache(new DefaultDnsCache())
+            .nameServerProvider(nameServers);
+
+        this.loop = loop;
+        this.resolver = builder.build();
+        this.resolverGroup = new DnsAddressResolverGroup(builder);
+        this.srvCache = new HashMap<>();
+        this.targets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Resolves the given address asynchronously.
+     * <br>
+     * If the address uses the default port, its SRV record is looked up first.
+     *
+     * @param address the address
+     * @return the future of the resolved address
+     */
+    @NotNull
+    public Future<InetSocketAddress> resolve(@NotNull ServerAddress address) {
+        Promise<InetSocketAddress> promise = loop.newPromise();
+
+        if (loop.inEventLoop()) {
+            resolve0(address, promise);
+        } else {
+            loop.execute(() -> resolve0(address, promise));
+        }
+
+        return promise;
+    }
+
+    /**
+     * Sets the addresses which are resolved in the background.
+     * <br>
+     * Addresses which were already targeted keep their resolved address, the others stop being refreshed.
+     *
+     * @param addresses the addresses
+     */
+    public void targets(@NotNull Collection<ServerAddress> addresses) {
+        targets.keySet().retainAll(addresses);
+
+        for (ServerAddress address : addresses) {
+            Target target = new Target();
+
+            if (targets.putIfAbsent(address, target) == null) {
+                loop.execute(() -> refresh(address, target));
+            }
+        }
+    }
+
+    /**
+     * Returns the address to connect to for the given address.
+     * <br>
+     * If it's a target address and it was already resolved, the resolved address is returned right away.
+     * Otherwise the address is {@link #resolve(ServerAddress) resolved}, including its SRV record.
+     * <br>
+     * The listeners of the returned future are notified on the given executor.
+     *
+     * @param address  the address
+     * @param executor the executor of the caller
+     * @return the future of the socket address
+     */
+    @NotNull
+    public Future<InetSocketAddress> remoteAddress(@NotNull ServerAddress address, @NotNull EventExecutor executor) {
+        InetSocketAddress resolved = current(address);
+
+        if (resolved != null) {
+            return executor.newSucceededFuture(resolved);
+        }
+
+        Promise<InetSocketAddress> promise = executor.newPromise();
+        resolve(address).addListener((Future<InetSocketAddress> f) -> {
+            if (f.isSuccess()) {
+                promise.trySuccess(f.getNow());
+            } else {
+                promise.tryFailure(f.cause());
+            }
+        });
+        return promise;
+    }
+
+    /**
+     * Returns the resolved address of the given target address.
+     *
+     * @param address the address
+     * @return the resolved address, or null if the address isn't a target or it isn't resolved yet
+     */
+    @Nullable
+    public InetSocketAddress current(@NotNull ServerAddress address) {
+        Target target = targets.get(address);
+        return target != null ? target.resolved : null;
+    }
+
+    /**
+     * Returns the asynchronous resolver used by the bootstraps, sharing the A/AAAA cache of this resolver.
+     *
+     * @return the address resolver group
+     */
+    @NotNull
+    public AddressResolverGroup<InetSocketAddress> addressResolverGroup() {
+        return resolverGroup;
+    }
+
+    /**
+     * Stops refreshing the target addresses and releases the underlying resolvers.
+     */
+    public void close() {
+        targets.clear();
+        loop.execute(() -> {
+            resolver.close();
+            resolverGroup.close();
+        });
+    }
+
+    private void refresh(ServerAddress address, Target target) {
+        if (targets.get(address) != target) {
+            return;
+        }
+
+        resolve(address).addListener((Future<InetSocketAddress> f) -> {
+            // The targets changed in the meantime
+            if (targets.get(address) != target) {
+                return;
+            }
+
+            if (f.isSuccess()) {
+                target.resolved = f.getNow();
+            }
+
+            long delay = DEFAULT_REFRESH;
+            SrvRecord srv = srvCache.get(address.host());
+
+            if (address.port() == SRV_PORT && srv != null) {
+                delay = Math.max(MIN_REFRESH, Math.min(MAX_REFRESH, srv.expiresAt() - System.nanoTime()));
+            }
+
+            loop.schedule(() -> refresh(address, target), delay, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private void resolve0(ServerAddress address, Promise<InetSocketAddress> promise) {
+        srv(address).addListener((Future<ServerAddress> srv) -> {
+            ServerAddress target = srv.getNow();
+
+            resolver.resolve(target.host()).addListener((Future<InetAddress> f) -> {
+                if (f.isSuccess()) {
+                    promise.trySuccess(new InetSocketAddress(f.getNow(), target.port()));
+                } else {
+                    promise.tryFailure(f.cause());
+                }
+            });
+        });
+    }
+
+    /**
+     * Looks up the SRV record of the given address, using the cache if possible.
+     *
+     * @param address the address
+     * @return the future of the address from the SRV record, or the given address if there's none
+     */
+    private Future<ServerAddress> srv(ServerAddress address) {
+        if (address.port() != SRV_PORT) {
+            return loop.newSucceededFuture(address);
+        }
+
+        SrvRecord cached = srvCache.get(address.host());
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+            return loop.newSucceededFuture(cached.address() != null ? cached.address() : address);
+        }
+
+        Promise<ServerAddress> promise = loop.newPromise();
+        resolver.resolveAll(new DefaultDnsQuestion("_minecraft._tcp." + address.host(), DnsRecordType.SRV))
+            .addListener((Future<List<DnsRecord>> f) -> {
+                SrvRecord record = f.isSuccess() ? parseSrv(f.getNow()) : null;
+
+                if (record == null) {
+                    // No SRV record, using the address as-is
+                    record = new SrvRecord(null, System.nanoTime() + DEFAULT_REFRESH);
+                }
+
+                srvCache.put(address.host(), record);
+                promise.setSuccess(record.address() != null ? record.address() : address);
+            });
+
+        return promise;
+    }
+
+    /**
+     * Returns the SRV record with the lowest priority from the given records, and releases them.
+     *
+     * @param records the records
+     * @return the SRV record, or null if there's none
+     */
+    @Nullable
+    private static SrvRecord parseSrv(List<DnsRecord> records) {
+        SrvRecord result = null;
+        int lowestPriority = Integer.MAX_VALUE;
+
+        try {
+            for (DnsRecord record : records) {
+                if (record.type() != DnsRecordType.SRV || !(record instanceof DnsRawRecord raw)) {
+                    continue;
+                }
+
+                // Priority, weight, port, target
+                ByteBuf content = raw.content().duplicate();
+                int priority = content.readUnsignedShort();
+                content.skipBytes(2);
+                int port = content.readUnsignedShort();
+                String host = DefaultDnsRecordDecoder.decodeName(content);
+
+                if (priority < lowestPriority) {
+                    lowestPriority = priority;
+                    result = new SrvRecord(
+                        new ServerAddress(host.endsWith(".") ? host.substring(0, host.length() - 1) : host, port),
+                        System.nanoTime() + TimeUnit.SECONDS.toNanos(record.timeToLive())
+                    );
+                }
+            }
+        } finally {
+            records.forEach(ReferenceCountUtil::release);
+        }
+
+        return result;
+    }
+
+    /**
+     * A target address, and its last resolved address.
+     */
+    private static final class Target {
+        private volatile InetSocketAddress resolved;
+    }
+
+    /**
+     * A cached SRV record.
+     *
+     * @param address   the address from the record, or null if there's no record
+     * @param expiresAt the {@link System#nanoTime()} at which the record expires
+     */
+    private record SrvRecord(@Nullable ServerAddress address, long expiresAt) {
+    }
+}
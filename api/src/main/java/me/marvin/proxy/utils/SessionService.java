@@ -1,12 +1,14 @@
 package me.marvin.proxy.utils;
 
 import com.google.gson.JsonObject;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.concurrent.*;
 
 /**
  * A simple interface representing a session service.
@@ -17,21 +19,42 @@ public interface SessionService {
      */
     SessionService DEFAULT = new SessionService() {
         private static final URI JOIN_URL = URI.create("https://sessionserver.mojang.com/session/minecraft/join");
-        private static final HttpClient CLIENT = HttpClient.newBuilder().build();
+        // Using its own executor, the blocking requests run on Constants.EXECUTOR and would wait for themselves
+        private static final HttpClient CLIENT = HttpClient.newHttpClient();
 
         @Override
         public void joinServer(@NotNull GameProfile profile, @NotNull String authenticationToken, @NotNull String serverId) throws Exception {
+            HttpResponse<String> response = CLIENT.send(request(profile, authenticationToken, serverId), HttpResponse.BodyHandlers.ofString());
+            check(profile, response);
+        }
+
+        @Override
+        @NotNull
+        public CompletableFuture<Void> joinServerAsync(@NotNull GameProfile profile, @NotNull String authenticationToken, @NotNull String serverId) {
+            return CLIENT.sendAsync(request(profile, authenticationToken, serverId), HttpResponse.BodyHandlers.ofString())
+                .thenAccept(response -> {
+                    try {
+                        check(profile, response);
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+        }
+
+        private HttpRequest request(GameProfile profile, String authenticationToken, String serverId) {
             JsonObject request = new JsonObject();
             request.addProperty("accessToken", authenticationToken);
             request.addProperty("selectedProfile", profile.uuid().toString());
             request.addProperty("serverId", serverId);
 
-            HttpResponse<String> response = CLIENT.send(HttpRequest.newBuilder()
+            return HttpRequest.newBuilder()
                 .uri(JOIN_URL)
                 .POST(HttpRequest.BodyPublishers.ofString(request.toString()))
                 .header("Content-Type", "application/json")
-                .build(), HttpResponse.BodyHandlers.ofString());
+                .build();
+        }
 
+        private void check(GameProfile profile, HttpResponse<String> response) throws Exception {
             if (response.statusCode() != 204) {
                 throw new Exception("An error happened while authenticating %s".formatted(profile.uuid()), new Exception(response.body()));
             }
@@ -50,4 +73,54 @@ public interface SessionService {
      * @throws Exception if we could not authenticate the user
      */
     void joinServer(@NotNull GameProfile profile, @NotNull String authenticationToken, @NotNull String serverId) throws Exception;
+
+    /**
+     * Attempts to join the specified Minecraft server without blocking the caller.
+     * <p />
+     * By default, this method runs {@link #joinServer(GameProfile, String, String)} on a small, bounded executor.
+     * Implementations with non-blocking I/O should override this method.
+     *
+     * @param profile partial {@link GameProfile} to join as
+     * @param authenticationToken the authenticated token of the user
+     * @param serverId the random ID of the server to join
+     * @return a future which completes exceptionally if we could not authenticate the user
+     */
+    @NotNull
+    default CompletableFuture<Void> joinServerAsync(@NotNull GameProfile profile, @NotNull String authenticationToken, @NotNull String serverId) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                joinServer(profile, authenticationToken, serverId);
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, Constants.EXECUTOR);
+    }
+
+    final class Constants {
+        /**
+         * The maximum amount of concurrently running authentication requests.
+         */
+        private static final int MAX_THREADS = 4;
+
+        /**
+         * The maximum amount of queued authentication requests.
+         */
+        private static final int MAX_QUEUED = 1024;
+
+        /**
+         * The executor used for authentication requests.
+         */
+        static final ExecutorService EXECUTOR;
+
+        static {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                MAX_THREADS, MAX_THREADS,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED),
+                new DefaultThreadFactory("session-service", true)
+            );
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+    }
 }
@@ -0,0 +1,155 @@
+package me.marvin.proxy.utils;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.handler.codec.dns.*;
+import io.netty.resolver.dns.SingletonDnsServerAddressStreamProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Resolves addresses against a stub DNS server serving the following records:
+ * <ul>
+ *     <li>{@code _minecraft._tcp.srv.test} SRV {@code 0 5 25570 target.test}</li>
+ *     <li>{@code target.test} A {@code 127.0.0.1}</li>
+ *     <li>{@code plain.test} A {@code 127.0.0.2}</li>
+ * </ul>
+ */
+class ServerResolverTest {
+    private static final long TIMEOUT = 5;
+
+    private final Set<String> srvQueries = ConcurrentHashMap.newKeySet();
+    private EventLoopGroup group;
+    private Channel server;
+    private ServerResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        group = new NioEventLoopGroup(1);
+        server = new Bootstrap()
+            .group(group)
+            .channel(NioDatagramChannel.class)
+            .handler(new ChannelInitializer<DatagramChannel>() {
+                @Override
+                protected void initChannel(DatagramChannel ch) {
+                    ch.pipeline()
+                        .addLast(new DatagramDnsQueryDecoder())
+                        .addLast(new DatagramDnsResponseEncoder())
+                        .addLast(new StubServer());
+                }
+            })
+            .bind(InetAddress.getLoopbackAddress(), 0)
+            .sync()
+            .channel();
+
+        resolver = new ServerResolver(group.next(), NioDatagramChannel.class,
+            new SingletonDnsServerAddressStreamProvider((InetSocketAddress) server.localAddress()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        resolver.close();
+        server.close().sync();
+        group.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+    }
+
+    @Test
+    void srvHit() throws Exception {
+        InetSocketAddress resolved = resolver.resolve(new ServerAddress("srv.test", 25565)).get(TIMEOUT, TimeUnit.SECONDS);
+
+        assertEquals(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 25570), resolved);
+    }
+
+    @Test
+    void srvMiss() throws Exception {
+        InetSocketAddress resolved = resolver.resolve(new ServerAddress("plain.test", 25565)).get(TIMEOUT, TimeUnit.SECONDS);
+
+        assertEquals(new InetSocketAddress(InetAddress.getByName("127.0.0.2"), 25565), resolved);
+        assertTrue(srvQueries.contains("_minecraft._tcp.plain.test."));
+    }
+
+    @Test
+    void srvSkippedOnCustomPort() throws Exception {
+        InetSocketAddress resolved = resolver.resolve(new ServerAddress("plain.test", 25570)).get(TIMEOUT, TimeUnit.SECONDS);
+
+        assertEquals(new InetSocketAddress(InetAddress.getByName("127.0.0.2"), 25570), resolved);
+        assertTrue(srvQueries.isEmpty());
+    }
+
+    @Test
+    void remoteAddressFallsBackToResolve() throws Exception {
+        InetSocketAddress resolved = resolver.remoteAddress(new ServerAddress("srv.test", 25565), group.next()).get(TIMEOUT, TimeUnit.SECONDS);
+
+        assertFalse(resolved.isUnresolved());
+        assertEquals(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 25570), resolved);
+    }
+
+    /**
+     * Answers the queries from the records above, with NXDOMAIN for unknown names.
+     */
+    private final class StubServer extends SimpleChannelInboundHandler<DatagramDnsQuery> {
+        private static final Map<String, byte[]> A_RECORDS = Map.of(
+            "target.test.", new byte[]{127, 0, 0, 1},
+            "plain.test.", new byte[]{127, 0, 0, 2}
+        );
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, DatagramDnsQuery query) {
+            DnsQuestion question = query.recordAt(DnsSection.QUESTION);
+            DatagramDnsResponse response = new DatagramDnsResponse(query.recipient(), query.sender(), query.id());
+            response.addRecord(DnsSection.QUESTION, new DefaultDnsQuestion(question.name(), question.type()));
+
+            String name = question.name();
+            if (question.type() == DnsRecordType.SRV) {
+                srvQueries.add(name);
+
+                if (name.equals("_minecraft._tcp.srv.test.")) {
+                    response.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(name, DnsRecordType.SRV, 60, srv(0, 5, 25570, "target.test.")));
+                } else {
+                    response.setCode(DnsResponseCode.NXDOMAIN);
+                }
+            } else if (A_RECORDS.containsKey(name)) {
+                if (question.type() == DnsRecordType.A) {
+                    response.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(name, DnsRecordType.A, 60, Unpooled.wrappedBuffer(A_RECORDS.get(name))));
+                }
+            } else {
+                response.setCode(DnsResponseCode.NXDOMAIN);
+            }
+
+            ctx.writeAndFlush(response);
+        }
+
+        private static ByteBuf srv(int priority, int weight, int port, String target) {
+            ByteBuf content = Unpooled.buffer()
+                .writeShort(priority)
+                .writeShort(weight)
+                .writeShort(port);
+
+            for (String label : target.split("\\.")) {
+                byte[] bytes = label.getBytes(StandardCharsets.US_ASCII);
+                content.writeByte(bytes.length).writeBytes(bytes);
+            }
+            return content.writeByte(0);
+        }
+    }
+}
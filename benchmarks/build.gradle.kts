@@ -0,0 +1,14 @@
+plugins {
+    id("me.champeau.jmh") version "0.6.6"
+}
+
+dependencies {
+    implementation(project(":api"))
+}
+
+jmh {
+    jmhVersion.set("1.35")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+}
@@ -0,0 +1,70 @@
+package me.marvin.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import me.marvin.proxy.networking.pipeline.game.CipherDecoder;
+import me.marvin.proxy.networking.pipeline.game.CipherEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CipherEncoder} and {@link CipherDecoder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(CipherBenchmark.PACKETS)
+public class CipherBenchmark {
+    static final int PACKETS = 256;
+
+    @Param
+    public PacketStreams.Distribution distribution;
+
+    private ByteBuf[] packets;
+    private EmbeddedChannel encoder;
+    private EmbeddedChannel decoder;
+
+    @Setup
+    public void setup() {
+        SecretKey key = new SecretKeySpec(new byte[]{
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15
+        }, "AES");
+
+        packets = PacketStreams.packets(distribution, PACKETS, 0x1337);
+        encoder = new EmbeddedChannel(new CipherEncoder(key));
+        decoder = new EmbeddedChannel(new CipherDecoder(key));
+    }
+
+    @TearDown
+    public void tearDown() {
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+        PacketStreams.release(packets);
+    }
+
+    @Benchmark
+    public void encrypt(Blackhole blackhole) {
+        for (ByteBuf packet : packets) {
+            encoder.writeOutbound(packet.retainedDuplicate());
+
+            ByteBuf out = encoder.readOutbound();
+            blackhole.consume(out.readableBytes());
+            out.release();
+        }
+    }
+
+    @Benchmark
+    public void decrypt(Blackhole blackhole) {
+        for (ByteBuf packet : packets) {
+            decoder.writeInbound(packet.retainedDuplicate());
+
+            ByteBuf out = decoder.readInbound();
+            blackhole.consume(out.readableBytes());
+            out.release();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package me.marvin.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import me.marvin.proxy.networking.pipeline.game.PacketCompressor;
+import me.marvin.proxy.networking.pipeline.game.PacketDecompressor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PacketCompressor} and {@link PacketDecompressor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(CompressionBenchmark.PACKETS)
+public class CompressionBenchmark {
+    static final int PACKETS = 256;
+
+    @Param
+    public PacketStreams.Distribution distribution;
+
+    @Param({"256"})
+    public int threshold;
+
+    private ByteBuf[] packets;
+    private ByteBuf[] compressed;
+    private EmbeddedChannel compressor;
+    private EmbeddedChannel decompressor;
+
+    @Setup
+    public void setup() {
+        packets = PacketStreams.packets(distribution, PACKETS, 0x1337);
+        compressed = new ByteBuf[PACKETS];
+        compressor = new EmbeddedChannel(new PacketCompressor(threshold));
+        decompressor = new EmbeddedChannel(new PacketDecompressor(threshold));
+
+        for (int i = 0; i < PACKETS; i++) {
+            compressor.writeOutbound(packets[i].retainedDuplicate());
+            compressed[i] = compressor.readOutbound();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        compressor.finishAndReleaseAll();
+        decompressor.finishAndReleaseAll();
+        PacketStreams.release(packets);
+        PacketStreams.release(compressed);
+    }
+
+    @Benchmark
+    public void compress(Blackhole blackhole) {
+        for (ByteBuf packet : packets) {
+            compressor.writeOutbound(packet.retainedDuplicate());
+
+            ByteBuf out = compressor.readOutbound();
+            blackhole.consume(out.readableBytes());
+            out.release();
+        }
+    }
+
+    @Benchmark
+    public void decompress(Blackhole blackhole) {
+        for (ByteBuf packet : compressed) {
+            decompressor.writeInbound(packet.retainedDuplicate());
+
+            ByteBuf out = decompressor.readInbound();
+            blackhole.consume(out.readableBytes());
+            out.release();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package me.marvin.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import me.marvin.proxy.networking.pipeline.game.VarIntFrameDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the frame decoders on a stream split into socket sized reads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(FrameDecoderBenchmark.FRAMES)
+public class FrameDecoderBenchmark {
+    static final int FRAMES = 1024;
+    private static final int READ_SIZE = 2048;
+
+    @Param
+    public PacketStreams.Distribution distribution;
+
+    @Param
+    public Decoder decoder;
+
+    private ByteBuf stream;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        stream = PacketStreams.frames(distribution, FRAMES, 0x1337);
+        channel = new EmbeddedChannel(decoder.factory.get());
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        stream.release();
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        int length = stream.readableBytes();
+
+        for (int index = 0; index < length; index += READ_SIZE) {
+            channel.writeInbound(stream.retainedSlice(index, Math.min(READ_SIZE, length - index)));
+
+            ByteBuf frame;
+            while ((frame = channel.readInbound()) != null) {
+                blackhole.consume(frame.readableBytes());
+                frame.release();
+            }
+        }
+    }
+
+    public enum Decoder {
+        LEGACY(LegacyVarIntFrameDecoder::new),
+        CURRENT(VarIntFrameDecoder::new);
+
+        private final Supplier<ChannelHandler> factory;
+
+        Decoder(Supplier<ChannelHandler> factory) {
+            this.factory = factory;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package me.marvin.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import me.marvin.proxy.networking.pipeline.game.VarIntFrameEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link VarIntFrameEncoder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(FrameEncoderBenchmark.PACKETS)
+public class FrameEncoderBenchmark {
+    static final int PACKETS = 1024;
+
+    @Param
+    public PacketStreams.Distribution distribution;
+
+    private ByteBuf[] packets;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        packets = PacketStreams.packets(distribution, PACKETS, 0x1337);
+        channel = new EmbeddedChannel(new VarIntFrameEncoder());
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        PacketStreams.release(packets);
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        for (ByteBuf packet : packets) {
+            channel.writeOutbound(packet.retainedDuplicate());
+
+            ByteBuf frame = channel.readOutbound();
+            blackhole.consume(frame.readableBytes());
+            frame.release();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package me.marvin.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+
+import static me.marvin.proxy.utils.ByteBufUtils.writeVarInt;
+
+/**
+ * Synthetic packet streams used by the benchmarks.
+ */
+public enum PacketStreams {;
+    /**
+     * Packet size distributions.
+     */
+    public enum Distribution {
+        /**
+         * Movement, keep alive and other small packets only.
+         */
+        MOVEMENT {
+            @Override
+            int nextSize(SplittableRandom random) {
+                return random.nextInt(8, 48);
+            }
+        },
+
+        /**
+         * A regular play session: mostly small packets, some entity metadata and the occasional chunk.
+         */
+        MIXED {
+            @Override
+            int nextSize(SplittableRandom random) {
+                int roll = random.nextInt(100);
+                if (roll < 70) return random.nextInt(8, 48);
+                if (roll < 95) return random.nextInt(64, 512);
+                return random.nextInt(2048, 65536);
+            }
+        },
+
+        /**
+         * Joining or teleporting: half of the packets are chunks.
+         */
+        CHUNKS {
+            @Override
+            int nextSize(SplittableRandom random) {
+                return random.nextBoolean() ? random.nextInt(8, 48) : random.nextInt(8192, 131072);
+            }
+        };
+
+        /**
+         * Returns the size of the next packet.
+         *
+         * @param random the random source
+         * @return the size of the packet
+         */
+        abstract int nextSize(SplittableRandom random);
+    }
+
+    /**
+     * Creates packets following the given distribution. Each packet starts with a random packet id.
+     *
+     * @param distribution the distribution
+     * @param count        the amount of packets
+     * @param seed         the seed
+     * @return the packets
+     */
+    @NotNull
+    public static ByteBuf[] packets(@NotNull Distribution distribution, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ByteBuf[] packets = new ByteBuf[count];
+
+        for (int i = 0; i < count; i++) {
+            int size = distribution.nextSize(random);
+            ByteBuf packet = ByteBufAllocator.DEFAULT.directBuffer(size);
+            writeVarInt(packet, random.nextInt(0x80));
+
+            // Short runs from a small alphabet, so the packets compress roughly like game data does
+            while (packet.writerIndex() < size) {
+                int value = random.nextInt(32);
+                for (int run = random.nextInt(1, 8); run > 0 && packet.writerIndex() < size; run--) {
+                    packet.writeByte(value);
+                }
+            }
+
+            packets[i] = packet;
+        }
+
+        return packets;
+    }
+
+    /**
+     * Creates a stream of VarInt length prefixed frames following the given distribution.
+     *
+     * @param distribution the distribution
+     * @param count        the amount of frames
+     * @param seed         the seed
+     * @return the stream
+     */
+    @NotNull
+    public static ByteBuf frames(@NotNull Distribution distribution, int count, long seed) {
+        ByteBuf stream = ByteBufAllocator.DEFAULT.directBuffer();
+
+        for (ByteBuf packet : packets(distribution, count, seed)) {
+            writeVarInt(stream, packet.readableBytes());
+            stream.writeBytes(packet);
+            packet.release();
+        }
+
+        return stream;
+    }
+
+    /**
+     * Releases the given buffers.
+     *
+     * @param bufs the buffers
+     */
+    public static void release(@NotNull ByteBuf... bufs) {
+        for (ByteBuf buf : bufs) {
+            buf.release();
+        }
+    }
+}
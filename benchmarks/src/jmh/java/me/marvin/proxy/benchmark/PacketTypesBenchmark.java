@@ -0,0 +1,66 @@
+package me.marvin.proxy.benchmark;
+
+import me.marvin.proxy.networking.ProtocolDirection;
+import me.marvin.proxy.networking.ProtocolPhase;
+import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.PacketType;
+import me.marvin.proxy.networking.packet.PacketTypes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the packet type lookups in both directions: id to type and type to id.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PacketTypesBenchmark.LOOKUPS)
+public class PacketTypesBenchmark {
+    static final int LOOKUPS = 1024;
+
+    static {
+        PacketTypes.load();
+    }
+
+    /**
+     * The protocol version of the connection, both exact and in-between versions.
+     */
+    @Param({"47", "340", "754", "760"})
+    public int protocol;
+
+    private Version version;
+    private int[] ids;
+    private PacketType[] types;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(0x1337);
+        version = Version.exact(protocol);
+        PacketType[] known = PacketTypes.Play.Server.values();
+
+        ids = new int[LOOKUPS];
+        types = new PacketType[LOOKUPS];
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            types[i] = known[random.nextInt(known.length)];
+            ids[i] = random.nextInt(0x40);
+        }
+    }
+
+    @Benchmark
+    public void find(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(PacketTypes.find(ProtocolDirection.SERVER, ProtocolPhase.PLAY, id, version));
+        }
+    }
+
+    @Benchmark
+    public void id(Blackhole blackhole) {
+        for (PacketType type : types) {
+            blackhole.consume(type.id(version));
+        }
+    }
+}
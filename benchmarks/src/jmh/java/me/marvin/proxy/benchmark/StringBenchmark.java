@@ -0,0 +1,60 @@
+package me.marvin.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static me.marvin.proxy.utils.ByteBufUtils.readString;
+import static me.marvin.proxy.utils.ByteBufUtils.writeString;
+
+/**
+ * Measures the String codec of {@link me.marvin.proxy.utils.ByteBufUtils}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringBenchmark {
+    /**
+     * The length of the string: a name, a chat message and a status response.
+     */
+    @Param({"16", "256", "4096"})
+    public int length;
+
+    private String value;
+    private ByteBuf buf;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(0x1337);
+        StringBuilder builder = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            builder.append((char) random.nextInt('a', 'z' + 1));
+        }
+
+        value = builder.toString();
+        buf = ByteBufAllocator.DEFAULT.directBuffer(length * 3 + 5);
+        writeString(buf, value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+    }
+
+    @Benchmark
+    public int write() {
+        buf.clear();
+        writeString(buf, value);
+        return buf.writerIndex();
+    }
+
+    @Benchmark
+    public String read() {
+        buf.readerIndex(0);
+        return readString(buf);
+    }
+}
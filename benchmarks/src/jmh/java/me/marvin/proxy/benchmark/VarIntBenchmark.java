@@ -0,0 +1,73 @@
+package me.marvin.proxy.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static me.marvin.proxy.utils.ByteBufUtils.readVarInt;
+import static me.marvin.proxy.utils.ByteBufUtils.writeVarInt;
+
+/**
+ * Measures the VarInt codec of {@link me.marvin.proxy.utils.ByteBufUtils}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(VarIntBenchmark.VALUES)
+public class VarIntBenchmark {
+    static final int VALUES = 1024;
+
+    /**
+     * The encoded length of the values.
+     */
+    @Param({"1", "2", "3", "5"})
+    public int length;
+
+    private int[] values;
+    private ByteBuf buf;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(0x1337);
+        int min = length == 1 ? 0 : 1 << (7 * (length - 1));
+        int max = length == 5 ? Integer.MAX_VALUE : 1 << (7 * length);
+
+        values = random.ints(VALUES, min, max).toArray();
+        buf = ByteBufAllocator.DEFAULT.directBuffer(VALUES * 5);
+
+        for (int value : values) {
+            writeVarInt(buf, value);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+    }
+
+    @Benchmark
+    public int write() {
+        buf.clear();
+
+        for (int value : values) {
+            writeVarInt(buf, value);
+        }
+
+        return buf.writerIndex();
+    }
+
+    @Benchmark
+    public int read() {
+        buf.readerIndex(0);
+        int sum = 0;
+
+        for (int i = 0; i < VALUES; i++) {
+            sum += readVarInt(buf);
+        }
+
+        return sum;
+    }
+}
@@ -2,5 +2,6 @@ rootProject.name = "mc-proxy"
 
 include(
     "api",
-    "standalone"
+    "standalone",
+    "benchmarks"
 )
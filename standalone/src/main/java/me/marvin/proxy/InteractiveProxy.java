@@ -1,8 +1,15 @@
 package me.marvin.proxy;
 
 import io.netty.channel.epoll.Epoll;
+import io.netty.util.concurrent.Future;
 import me.marvin.proxy.addon.ProxyAddonHandler;
+import me.marvin.proxy.backend.Backend;
+import me.marvin.proxy.backend.BalancingStrategy;
 import me.marvin.proxy.commands.impl.CommandTree;
+import me.marvin.proxy.metrics.ConnectionStats;
+import me.marvin.proxy.metrics.ListenerProfiler;
+import me.marvin.proxy.networking.Keys;
+import me.marvin.proxy.natives.Natives;
 import me.marvin.proxy.utils.*;
 import net.minecrell.terminalconsole.SimpleTerminalConsole;
 import org.apache.logging.log4j.Logger;
@@ -11,7 +18,12 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class InteractiveProxy extends SimpleTerminalConsole {
     private volatile boolean isRunning;
@@ -21,13 +33,26 @@ public class InteractiveProxy extends SimpleTerminalConsole {
     private final CommandTree commandTree;
 
     public InteractiveProxy(int port, String targetAddr) throws IOException {
-        proxy = new Proxy(port, targetAddr);
+        String[] targetAddrs = targetAddr.split(",");
+        proxy = new Proxy(port, targetAddrs[0]).backends(targetAddrs)
+            .metricsPort(Integer.getInteger("metricsPort", -1))
+            .listenerSampleRate(Integer.getInteger("listenerSampleRate", 0))
+            .slowListenerThreshold(Long.getLong("slowListenerThreshold", 0))
+            .latencyTracking(Boolean.getBoolean("latencyTracking"));
         logger = proxy.logger();
         if (Epoll.isAvailable()) {
             proxy.logger().info("Using epoll...");
         }
+        logger.info("Using {} cipher and {} compression", Natives.cipher().name(), Natives.compressor().name());
         logger.info("Resolving address... ({})", targetAddr);
-        logger.info("Resolved server address: {}", proxy.address());
+        for (Backend backend : proxy.backends()) {
+            Future<InetSocketAddress> resolved = proxy.resolver().resolve(backend.address()).awaitUninterruptibly();
+            if (resolved.isSuccess()) {
+                logger.info("Resolved server address: {}", resolved.getNow());
+            } else {
+                logger.warn("Can't resolve server address: {}", backend.address(), resolved.cause());
+            }
+        }
         commandTree = new CommandTree();
         registerBuiltinCommands();
         addonHandler = new ProxyAddonHandler(proxy, commandTree);
@@ -35,17 +60,140 @@ public class InteractiveProxy extends SimpleTerminalConsole {
 
     private void registerBuiltinCommands() {
         commandTree.register(args -> {
-            if (args.length != 1) {
-                logger.info("Usage: setip [ip]");
+            if (args.length == 0) {
+                logger.info("Usage: setip [ip...]");
                 return false;
             }
 
-            ServerAddress prev = proxy.address();
-            proxy.address(args[0]);
-            logger.info("Changed address: '{}' -> '{}'", prev, proxy.address());
+            List<Backend> prev = proxy.backends();
+            proxy.backends(args);
+            logger.info("Changed address: '{}' -> '{}'", prev, proxy.backends());
             return true;
         }, "setip", "ip");
 
+        commandTree.register(args -> {
+            logger.info("Backends ({}):", proxy.balancingStrategy());
+            for (Backend backend : proxy.backends()) {
+                logger.info(" {}: {} connections ({})", backend.address(), backend.connections(), backend.available() ? "up" : "down");
+            }
+            return true;
+        }, "backends");
+
+        commandTree.register(args -> {
+            BalancingStrategy strategy = args.length == 1 ? switch (args[0]) {
+                case "round-robin" -> BalancingStrategy.roundRobin();
+                case "least-connections" -> BalancingStrategy.leastConnections();
+                case "ip-hash" -> BalancingStrategy.ipHash();
+                case "username-hash" -> BalancingStrategy.usernameHash();
+                default -> null;
+            } : null;
+
+            if (strategy == null) {
+                logger.info("Usage: balancing [round-robin|least-connections|ip-hash|username-hash]");
+                return false;
+            }
+
+            proxy.balancingStrategy(strategy);
+            logger.info("Set balancing strategy to: '{}'", proxy.balancingStrategy());
+            return true;
+        }, "balancing");
+
+        commandTree.register(args -> {
+            int limit;
+            try {
+                limit = args.length == 0 ? 10 : Integer.parseInt(args[0]);
+            } catch (NumberFormatException ex) {
+                limit = -1;
+            }
+
+            if (limit < 0) {
+                logger.info("Usage: connections [count]");
+                return false;
+            }
+
+            List<ConnectionStats> connections = proxy.frontends().stream()
+                .map(channel -> channel.attr(Keys.STATS_KEY).get())
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingDouble(ConnectionStats::bandwidth).reversed())
+                .toList();
+
+            logger.info("Connections ({}), by bandwidth:", connections.size());
+            for (ConnectionStats stats : connections.subList(0, Math.min(limit, connections.size()))) {
+                long rtt = stats.rtt(TimeUnit.MILLISECONDS);
+                logger.info(" {} ({}): {} KiB/s, in: {} KiB / {} packets, out: {} KiB / {} packets, compression: {}, {} {}, rtt: {}",
+                    stats.name() == null ? "-" : stats.name(),
+                    stats.address(),
+                    String.format("%.1f", stats.bandwidth() / 1024),
+                    stats.bytesIn() / 1024,
+                    stats.packetsIn(),
+                    stats.bytesOut() / 1024,
+                    stats.packetsOut(),
+                    String.format("%.2f", stats.compressionRatio()),
+                    stats.phase(),
+                    stats.version(),
+                    rtt < 0 ? "-" : rtt + " ms"
+                );
+            }
+            return true;
+        }, "connections");
+
+        commandTree.register(args -> {
+            if (args.length == 1 && args[0].equals("reset")) {
+                proxy.listenerProfiler().reset();
+                logger.info("Reset listener timings");
+                return true;
+            }
+
+            int limit;
+            try {
+                limit = args.length == 0 ? 10 : Integer.parseInt(args[0]);
+            } catch (NumberFormatException ex) {
+                limit = -1;
+            }
+
+            if (limit < 0) {
+                logger.info("Usage: listeners [count|reset]");
+                return false;
+            }
+
+            if (proxy.listenerSampleRate() == 0) {
+                logger.info("Listener timings are disabled, see 'profiling'");
+            }
+
+            logger.info("Slowest listener owners (1 in {} invocations measured):", proxy.listenerSampleRate());
+            for (ListenerProfiler.Entry entry : proxy.listenerProfiler().top(limit)) {
+                logger.info(" {}: {} us total, {} us avg, {} us max ({} invocations)",
+                    entry.owner(),
+                    TimeUnit.NANOSECONDS.toMicros(entry.nanos()),
+                    TimeUnit.NANOSECONDS.toMicros(entry.averageNanos()),
+                    TimeUnit.NANOSECONDS.toMicros(entry.maxNanos()),
+                    entry.calls()
+                );
+            }
+            return true;
+        }, "listeners");
+
+        commandTree.register(args -> {
+            int sampleRate;
+            long threshold;
+            try {
+                sampleRate = args.length >= 1 ? Integer.parseInt(args[0]) : -1;
+                threshold = args.length == 2 ? Long.parseLong(args[1]) : proxy.slowListenerThreshold();
+            } catch (NumberFormatException ex) {
+                sampleRate = -1;
+                threshold = -1;
+            }
+
+            if (args.length > 2 || sampleRate < 0 || threshold < 0) {
+                logger.info("Usage: profiling [sample rate] [slow threshold in us]");
+                return false;
+            }
+
+            proxy.listenerSampleRate(sampleRate).slowListenerThreshold(threshold);
+            logger.info("Set listener sample rate to: {}, slow threshold to: {} us", proxy.listenerSampleRate(), proxy.slowListenerThreshold());
+            return true;
+        }, "profiling");
+
         commandTree.register(args -> {
             shutdown();
             return true;
@@ -46,6 +46,11 @@ public abstract class ProxyAddon {
     public void onDisable() {
     }
 
+    @Override
+    public String toString() {
+        return info == null ? getClass().getName() : info.name() + " v" + info.version();
+    }
+
     /**
      * Registers the given listeners with the given owner.
      *
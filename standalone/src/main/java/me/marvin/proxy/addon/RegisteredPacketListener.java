@@ -4,11 +4,16 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import me.marvin.proxy.networking.PacketListener;
+import me.marvin.proxy.networking.ProtocolDirection;
+import me.marvin.proxy.networking.ProtocolPhase;
 import me.marvin.proxy.networking.Version;
+import me.marvin.proxy.networking.packet.LazyPacket;
 import me.marvin.proxy.networking.packet.PacketType;
 import me.marvin.proxy.utils.Tristate;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Set;
+
 /**
  * A simple record wrapping a {@link PacketListener}.
  *
@@ -21,11 +26,38 @@ record RegisteredPacketListener(Object owner, PacketListener listener) implement
         return listener.priority();
     }
 
+    @Override
+    public Set<PacketType> packetTypes() {
+        return listener.packetTypes();
+    }
+
+    @Override
+    @NotNull
+    public Set<ProtocolDirection> directions() {
+        return listener.directions();
+    }
+
+    @Override
+    @NotNull
+    public Set<ProtocolPhase> phases() {
+        return listener.phases();
+    }
+
+    @Override
+    public boolean interested(@NotNull PacketType type) {
+        return listener.interested(type);
+    }
+
     @Override
     public Tristate handle(PacketType type, ByteBuf buf, Channel sender, ChannelHandlerContext receiver, Version version, Tristate cancelled) {
         return listener.handle(type, buf, sender, receiver, version, cancelled);
     }
 
+    @Override
+    public Tristate handle(LazyPacket packet, Channel sender, ChannelHandlerContext receiver, Tristate cancelled) {
+        return listener.handle(packet, sender, receiver, cancelled);
+    }
+
     @Override
     public int compareTo(@NotNull PacketListener o) {
         return listener.compareTo(o);